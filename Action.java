@@ -0,0 +1,43 @@
+public class Action {
+    private static final Action FOLD = new Action(ActionType.FOLD, 0);
+    private static final Action CHECK = new Action(ActionType.CHECK, 0);
+    private static final Action CALL = new Action(ActionType.CALL, 0);
+
+    private final ActionType type;
+    private final int amount;
+
+    private Action(ActionType type, int amount) {
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public static Action fold() {
+        return FOLD;
+    }
+
+    public static Action check() {
+        return CHECK;
+    }
+
+    public static Action call() {
+        return CALL;
+    }
+
+    // amount is added on top of the current bet, like the console "Enter raise amount" prompt.
+    public static Action raise(int amount) {
+        return new Action(ActionType.RAISE, amount);
+    }
+
+    public ActionType getType() {
+        return type;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return type == ActionType.RAISE ? type + " " + amount : type.toString();
+    }
+}
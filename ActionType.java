@@ -0,0 +1,6 @@
+public enum ActionType {
+    FOLD,
+    CHECK,
+    CALL,
+    RAISE
+}
@@ -0,0 +1,201 @@
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.util.*;
+
+// Throughput and allocation benchmarks for the engine hot paths.
+// Usage: java Benchmarks [name-filter] [warmup-seconds] [measure-seconds]
+public class Benchmarks {
+    private static final int SAMPLES = 4096;
+
+    private static volatile long sink;
+
+    interface Workload {
+        // Runs one operation and returns a value that is folded into the sink.
+        long run(int i);
+    }
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        double warmup = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+        double measure = args.length > 2 ? Double.parseDouble(args[2]) : 3;
+
+        Map<String, Workload> workloads = new LinkedHashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int size = 5; size <= 7; size++) {
+            List<List<Card>> hands = randomHands(random, size);
+            workloads.put("evaluateHand." + size, i -> HandEvaluator.evaluateHand(hands.get(i & (SAMPLES - 1))));
+        }
+        int[][] primitiveHands = new int[SAMPLES][];
+        List<List<Card>> sevenCardHands = randomHands(random, 7);
+        for (int i = 0; i < SAMPLES; i++) {
+            primitiveHands[i] = new int[7];
+            for (int c = 0; c < 7; c++) {
+                primitiveHands[i][c] = sevenCardHands.get(i).get(c).getId();
+            }
+        }
+        workloads.put("evaluate.primitive7", i -> {
+            int[] h = primitiveHands[i & (SAMPLES - 1)];
+            return HandEvaluator.evaluate(h[0], h[1], h[2], h[3], h[4], h[5], h[6]);
+        });
+        int[][] columns = new int[7][SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            for (int c = 0; c < 7; c++) {
+                columns[c][i] = primitiveHands[i][c];
+            }
+        }
+        int[] batchScores = new int[SAMPLES];
+        // One operation scores the whole batch; divide ops/s by SAMPLES for hands.
+        workloads.put("evaluate.batch7x" + SAMPLES, i -> {
+            HandEvaluator.evaluateBatch(columns, 7, SAMPLES, batchScores);
+            return batchScores[i & (SAMPLES - 1)];
+        });
+        long[] maskHands = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            for (int c = 0; c < 7; c++) {
+                maskHands[i] |= 1L << primitiveHands[i][c];
+            }
+        }
+        workloads.put("evaluate.batchMask7x" + SAMPLES, i -> {
+            HandEvaluator.evaluateBatch(maskHands, 7, SAMPLES, batchScores);
+            return batchScores[i & (SAMPLES - 1)];
+        });
+        workloads.put("getHandType.7", i -> HandEvaluator.getHandType(sevenCardHands.get(i & (SAMPLES - 1))).length());
+        workloads.put("deck.construct", i -> new Deck().remaining());
+        Deck deck = new Deck(new SplittableRandom(7));
+        workloads.put("deck.resetAndDeal23", i -> {
+            deck.reset();
+            long dealt = 0;
+            for (int c = 0; c < 23; c++) {
+                dealt += deck.dealCardId();
+            }
+            return dealt;
+        });
+        for (int players = 2; players <= 10; players += 2) {
+            PokerGame game = allInShowdown(players, random.split());
+            // Every call pays the pots out again, so the stacks are put back first or they
+            // would overflow within the first second.
+            int[] stacks = new int[players];
+            for (int p = 0; p < players; p++) {
+                stacks[p] = game.getPlayers().get(p).getChips();
+            }
+            workloads.put("pots.allIn" + players, i -> {
+                for (int p = 0; p < stacks.length; p++) {
+                    Player player = game.getPlayers().get(p);
+                    player.receiveChips(stacks[p] - player.getChips());
+                }
+                game.settlePots();
+                return game.getPlayers().get(0).getChips();
+            });
+        }
+        SplittableRandom actions = random.split();
+        PlayerStrategy randomStrategy = (game, player) -> {
+            int roll = actions.nextInt(10);
+            if (roll < 3) {
+                return Action.fold();
+            }
+            return roll < 8 ? Action.call() : Action.raise(game.getBigBlind() * 3);
+        };
+        workloads.put("hand.headless6", i -> {
+            List<Player> players = new ArrayList<>();
+            for (int p = 0; p < 6; p++) {
+                players.add(new Player("P" + p, 1000));
+            }
+            PokerGame game = new PokerGame(players, 5, 10, new Deck(actions.split()), randomStrategy, GameListener.NONE);
+            game.startGame();
+            return game.getCommunityMask();
+        });
+        ConsoleListener render = new ConsoleListener(Channels.newChannel(OutputStream.nullOutputStream()), "[t1] ",
+                ConsoleListener.Detail.FULL);
+        workloads.put("hand.render6", i -> {
+            List<Player> players = new ArrayList<>();
+            for (int p = 0; p < 6; p++) {
+                players.add(new Player("P" + p, 1000));
+            }
+            PokerGame game = new PokerGame(players, 5, 10, new Deck(actions.split()), randomStrategy, render);
+            game.startGame();
+            return game.getCommunityMask();
+        });
+        BotStrategy bot = new BotStrategy(random.split(), Long.MAX_VALUE, 200);
+        workloads.put("hand.bots6", i -> {
+            List<Player> players = new ArrayList<>();
+            for (int p = 0; p < 6; p++) {
+                players.add(new Player("P" + p, 1000));
+            }
+            PokerGame game = new PokerGame(players, 5, 10, new Deck(actions.split()), bot, GameListener.NONE);
+            game.startGame();
+            return game.getCommunityMask();
+        });
+        GameMetrics untimed = new GameMetrics(false);
+        workloads.put("hand.headless6.untimed", i -> {
+            List<Player> players = new ArrayList<>();
+            for (int p = 0; p < 6; p++) {
+                players.add(new Player("P" + p, 1000));
+            }
+            PokerGame game = new PokerGame(players, 5, 10, new Deck(actions.split()), randomStrategy, GameListener.NONE);
+            game.setMetrics(untimed);
+            game.startGame();
+            return game.getCommunityMask();
+        });
+
+        System.out.printf("%-24s %16s %14s%n", "Benchmark", "ops/s", "bytes/op");
+        for (Map.Entry<String, Workload> entry : workloads.entrySet()) {
+            if (entry.getKey().contains(filter)) {
+                run(entry.getKey(), entry.getValue(), warmup, measure);
+            }
+        }
+    }
+
+    private static void run(String name, Workload workload, double warmupSeconds, double measureSeconds) {
+        measure(workload, warmupSeconds);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long ops = measure(workload, measureSeconds);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-24s %16.0f %14.1f%n", name, ops * 1e9 / elapsed, (double) allocated / ops);
+    }
+
+    // Runs the workload in chunks until the time is up and returns the number of operations.
+    private static long measure(Workload workload, double seconds) {
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        long ops = 0;
+        long result = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1024; i++) {
+                result += workload.run((int) ops + i);
+            }
+            ops += 1024;
+        }
+        sink += result;
+        return ops;
+    }
+
+    private static List<List<Card>> randomHands(SplittableRandom random, int size) {
+        List<List<Card>> hands = new ArrayList<>(SAMPLES);
+        Deck deck = new Deck(random.split());
+        for (int i = 0; i < SAMPLES; i++) {
+            deck.reset();
+            List<Card> hand = new ArrayList<>(size);
+            for (int c = 0; c < size; c++) {
+                hand.add(deck.dealCard());
+            }
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    // A finished hand in which every player moved all in pre-flop with a different stack.
+    private static PokerGame allInShowdown(int playerCount, SplittableRandom random) {
+        List<Player> players = new ArrayList<>();
+        for (int p = 0; p < playerCount; p++) {
+            players.add(new Player("P" + p, 100 * (p + 1)));
+        }
+        PlayerStrategy shove = (game, player) -> Action.raise(player.getChips());
+        PokerGame game = new PokerGame(players, 5, 10, new Deck(random), shove, GameListener.NONE);
+        game.startGame();
+        return game;
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.*;
+
+// Betting state of one street as seat bitmasks over the table's players (at most 64 seats):
+// live seats have not folded, all-in seats have no chips left, pending seats still have to
+// act before the round can end, and closed seats have acted since the last full raise and
+// may only call or fold if a short all-in raise comes back to them. The next seat to act
+// and the end of the round are found from the masks without scanning the players.
+//
+// Queries never change state, so strategies may call them while deciding. Bets are the
+// players' totals for the hand, like PokerGame.getCurrentBet().
+public class BettingRound {
+    private List<Player> players;
+    private long live;
+    private long allIn;
+    private long pending;
+    private long closed;
+    private int currentBet;
+    private int minRaise;
+    private int lastSeat;
+
+    // Starts a street. minRaise is the smallest raise increment, the big blind on every
+    // street; firstSeat is where the search for the first player to act begins.
+    public void start(List<Player> players, int currentBet, int minRaise, int firstSeat) {
+        if (players.isEmpty()) {
+            throw new IllegalArgumentException("A betting round needs at least one seat");
+        }
+        if (players.size() > 64) {
+            throw new IllegalArgumentException("At most 64 seats, got " + players.size());
+        }
+        this.players = players;
+        this.currentBet = currentBet;
+        this.minRaise = minRaise;
+        live = 0;
+        allIn = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            if (player.isActive()) {
+                live |= 1L << seat;
+                if (player.getChips() == 0) {
+                    allIn |= 1L << seat;
+                }
+            }
+        }
+        closed = 0;
+        long canAct = live & ~allIn;
+        pending = canAct;
+        if (Long.bitCount(canAct) == 1
+                && players.get(Long.numberOfTrailingZeros(canAct)).getCurrentBet() >= currentBet) {
+            // Nobody left to bet against.
+            pending = 0;
+        }
+        lastSeat = Math.floorMod(firstSeat - 1, players.size());
+    }
+
+    // Continues a round saved by a snapshot; live and all-in seats are read from the players.
+    void restore(List<Player> players, int currentBet, int minRaise, long pending, long closed, int lastSeat) {
+        start(players, currentBet, minRaise, lastSeat + 1);
+        this.pending = pending;
+        this.closed = closed;
+    }
+
+    public boolean isComplete() {
+        return pending == 0 || Long.bitCount(live) < 2;
+    }
+
+    // The pending seat after the last one to act, in table order, or -1 once the round is complete.
+    public int nextToAct() {
+        if (isComplete()) {
+            return -1;
+        }
+        long after = lastSeat == 63 ? 0 : pending & (-1L << (lastSeat + 1));
+        return Long.numberOfTrailingZeros(after != 0 ? after : pending);
+    }
+
+    public int toCall(int seat) {
+        Player player = players.get(seat);
+        return Math.min(currentBet - player.getCurrentBet(), player.getChips());
+    }
+
+    // Whether the seat may raise at all: it has chips beyond the call and the betting is open to it.
+    public boolean canRaise(int seat) {
+        Player player = players.get(seat);
+        return (closed & (1L << seat)) == 0 && player.getChips() + player.getCurrentBet() > currentBet;
+    }
+
+    // Smallest raise increment; a raise for less is only allowed all in.
+    public int getMinRaise() {
+        return minRaise;
+    }
+
+    // Largest raise increment: everything the seat has beyond the call.
+    public int getMaxRaise(int seat) {
+        Player player = players.get(seat);
+        return player.getChips() + player.getCurrentBet() - currentBet;
+    }
+
+    public boolean isLegal(int seat, ActionType type) {
+        if ((pending & (1L << seat)) == 0) {
+            return false;
+        }
+        switch (type) {
+            case FOLD:
+                return true;
+            case CHECK:
+                return players.get(seat).getCurrentBet() >= currentBet;
+            case CALL:
+                return players.get(seat).getCurrentBet() < currentBet;
+            case RAISE:
+                return canRaise(seat);
+            default:
+                return false;
+        }
+    }
+
+    public void fold(int seat) {
+        players.get(seat).setActive(false);
+        live &= ~(1L << seat);
+        acted(seat);
+    }
+
+    // Checks when there is nothing to call. Returns the chips put in.
+    public int call(int seat) {
+        int amount = toCall(seat);
+        players.get(seat).placeBet(amount);
+        acted(seat);
+        return amount;
+    }
+
+    // Raises by increment, which the caller has already clamped to [getMinRaise(), getMaxRaise(seat)]
+    // or, all in, to below getMinRaise(). A full raise reopens the betting for everyone; a short
+    // all-in raise only makes the others call it.
+    public void raise(int seat, int increment) {
+        Player player = players.get(seat);
+        currentBet += increment;
+        player.placeBet(currentBet - player.getCurrentBet());
+        if (increment >= minRaise) {
+            minRaise = increment;
+            closed = 0;
+        }
+        pending = live & ~allIn;
+        acted(seat);
+    }
+
+    private void acted(int seat) {
+        long bit = 1L << seat;
+        pending &= ~bit;
+        closed |= bit;
+        lastSeat = seat;
+        if (players.get(seat).getChips() == 0 && (live & bit) != 0) {
+            allIn |= bit;
+        }
+        long canAct = live & ~allIn;
+        if (Long.bitCount(canAct) == 1 && (pending & canAct) == canAct
+                && players.get(Long.numberOfTrailingZeros(canAct)).getCurrentBet() >= currentBet) {
+            pending = 0;
+        }
+    }
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    public long getLiveSeats() {
+        return live;
+    }
+
+    public long getAllInSeats() {
+        return allIn;
+    }
+
+    long getPending() {
+        return pending;
+    }
+
+    long getClosed() {
+        return closed;
+    }
+
+    int getLastSeat() {
+        return lastSeat;
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+// Computer player. Compares its Monte Carlo equity against the players still in the hand
+// with the pot odds, sampling until maxIterations or the time budget runs out.
+//
+// Keeps scratch state between decisions: use one instance per table thread.
+public class BotStrategy implements PlayerStrategy {
+    private static final int CHECK_INTERVAL = 16;
+    // Raise when equity beats an even share of the pot by this much of the rest.
+    private static final double RAISE_MARGIN = 0.3;
+    private static final double BLUFF_FREQUENCY = 0.05;
+
+    private final RandomGenerator random;
+    private final long budgetNanos;
+    private final int maxIterations;
+    private final int[] deck = new int[52];
+    private int lastIterations;
+    private double lastEquity;
+    private IcmCalculator icm;
+    // How long the last allInPays took, kept back from the Monte Carlo budget.
+    private long icmNanos;
+
+    // 5 ms and 2000 iterations per decision.
+    public BotStrategy() {
+        this(new SplittableRandom(), 5_000_000L, 2000);
+    }
+
+    // For reproducible play pass a seeded generator and Long.MAX_VALUE as the budget, so
+    // only the iteration count limits the estimate.
+    public BotStrategy(RandomGenerator random, long budgetNanos, int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("A bot needs at least one iteration per decision");
+        }
+        this.random = random;
+        this.budgetNanos = budgetNanos;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public Action decide(PokerGame game, Player player) {
+        long start = System.nanoTime();
+        long deadline = budgetNanos >= Long.MAX_VALUE - start ? Long.MAX_VALUE : start + budgetNanos;
+        int opponents = 0;
+        for (Player other : game.getPlayers()) {
+            if (other != player && other.isActive()) {
+                opponents++;
+            }
+        }
+        int toCall = Math.min(game.getCurrentBet() - player.getCurrentBet(), player.getChips());
+        int pot = game.getPotSize();
+        // The smallest raise below is half the pot; anything that reaches the stack is an all-in.
+        boolean allInPossible = toCall == player.getChips()
+                || Math.max(game.getBettingRound().getMinRaise(), pot / 2) >= player.getChips() - toCall;
+        if (icm != null && allInPossible && deadline != Long.MAX_VALUE) {
+            deadline -= Math.min(icmNanos, budgetNanos);
+        }
+        double equity = estimateEquity(player.getHandMask(), game.getCommunityMask(), opponents, deadline);
+        lastEquity = equity;
+
+        double potOdds = toCall == 0 ? 0 : (double) toCall / (pot + toCall);
+        double fairShare = 1.0 / (opponents + 1);
+        boolean strong = equity > fairShare + (1 - fairShare) * RAISE_MARGIN;
+        boolean bluff = random.nextDouble() < BLUFF_FREQUENCY;
+        if ((strong || bluff) && game.canRaise(player)) {
+            int raise = Math.max(game.getBettingRound().getMinRaise(), (int) (pot * (strong ? 0.75 : 0.5)));
+            if (icm == null || raise < player.getChips() - toCall || allInPays(game, player, equity)) {
+                return Action.raise(raise);
+            }
+        }
+        if (toCall == 0) {
+            return Action.check();
+        }
+        if (icm != null && toCall == player.getChips()) {
+            return allInPays(game, player, equity) ? Action.call() : Action.fold();
+        }
+        return equity >= potOdds ? Action.call() : Action.fold();
+    }
+
+    // Plays tournament hands by prize equity: an all-in must be worth more under ICM than
+    // folding. icm holds the payouts for the players at this table, who must be everyone left
+    // in the tournament; null goes back to chip equity. Past 16 players the model is sampled,
+    // which is slow with the default sample count; pass fewer samples for such fields.
+    public void setIcm(IcmCalculator icm) {
+        this.icm = icm;
+    }
+
+    // Whether putting all the bot's chips in beats folding in prize equity. The chips are
+    // treated as at risk against the live opponent with the largest bet, who takes the pot
+    // if the bot folds or loses.
+    private boolean allInPays(PokerGame game, Player player, double equity) {
+        long start = System.nanoTime();
+        List<Player> players = game.getPlayers();
+        int n = players.size();
+        int me = -1;
+        int villain = -1;
+        for (int seat = 0; seat < n; seat++) {
+            Player other = players.get(seat);
+            if (other == player) {
+                me = seat;
+            } else if (other.isActive()
+                    && (villain < 0 || other.getCurrentBet() > players.get(villain).getCurrentBet())) {
+                villain = seat;
+            }
+        }
+        if (villain < 0) {
+            return true;
+        }
+        // Players who busted in earlier hands have neither chips nor a bet and are left out.
+        int[] fold = new int[n];
+        int alive = 0;
+        for (int seat = 0; seat < n; seat++) {
+            fold[seat] = players.get(seat).getChips();
+            if (fold[seat] + players.get(seat).getCurrentBet() > 0) {
+                alive++;
+            }
+        }
+        int[] stacks = new int[alive];
+        int[] seats = new int[alive];
+        int count = 0;
+        for (int seat = 0; seat < n; seat++) {
+            if (fold[seat] + players.get(seat).getCurrentBet() > 0) {
+                seats[count] = seat;
+                stacks[count++] = fold[seat];
+            }
+        }
+        int pot = game.getPotSize();
+        int toCall = Math.min(game.getCurrentBet() - player.getCurrentBet(), player.getChips());
+        // What the villain can still match beyond the call.
+        int extra = Math.min(player.getChips() - toCall, players.get(villain).getChips());
+        int meIndex = Arrays.binarySearch(seats, me);
+        int villainIndex = Arrays.binarySearch(seats, villain);
+
+        stacks[villainIndex] += pot;
+        double foldValue = icm.equity(stacks)[meIndex];
+        stacks[villainIndex] -= pot;
+
+        stacks[meIndex] += pot + extra;
+        stacks[villainIndex] -= extra;
+        double winValue = icm.equity(stacks)[meIndex];
+        stacks[meIndex] -= pot + extra;
+        stacks[villainIndex] += extra;
+
+        stacks[meIndex] -= toCall + extra;
+        stacks[villainIndex] += pot + toCall + extra;
+        double loseValue = icm.equity(stacks)[meIndex];
+        icmNanos = System.nanoTime() - start;
+        return equity * winValue + (1 - equity) * loseValue >= foldValue;
+    }
+
+    // Share of the pot won on average against opponents holding random hands.
+    double estimateEquity(long holeCards, long board, int opponents, long deadline) {
+        int available = 0;
+        long known = holeCards | board;
+        for (int id = 0; id < 52; id++) {
+            if ((known & (1L << id)) == 0) {
+                deck[available++] = id;
+            }
+        }
+        int missing = 5 - Long.bitCount(board);
+        if (holeCards == 0 || available < missing + 2 * opponents) {
+            lastIterations = 0;
+            return opponents == 0 ? 1 : 1.0 / (opponents + 1);
+        }
+        long boardRanks = HandEvaluator.rankKey(board);
+        long boardSuits = HandEvaluator.suitMasks(board);
+        long heroRanks = HandEvaluator.rankKey(holeCards);
+        long heroSuits = HandEvaluator.suitMasks(holeCards);
+
+        double won = 0;
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            if (iterations % CHECK_INTERVAL == 0 && iterations > 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            int dealt = 0;
+            long ranks = boardRanks;
+            long suits = boardSuits;
+            for (int i = 0; i < missing; i++) {
+                int card = draw(dealt++, available);
+                ranks += 1L << ((card >>> 2) * 3);
+                suits |= 1L << ((card & 3) * 16 + (card >>> 2));
+            }
+            int hero = HandEvaluator.lookup(ranks + heroRanks, suits | heroSuits, 7);
+            int tied = 0;
+            boolean lost = false;
+            for (int o = 0; o < opponents && !lost; o++) {
+                int c1 = draw(dealt++, available);
+                int c2 = draw(dealt++, available);
+                int score = HandEvaluator.lookup(ranks + (1L << ((c1 >>> 2) * 3)) + (1L << ((c2 >>> 2) * 3)),
+                        suits | (1L << ((c1 & 3) * 16 + (c1 >>> 2))) | (1L << ((c2 & 3) * 16 + (c2 >>> 2))), 7);
+                if (score > hero) {
+                    lost = true;
+                } else if (score == hero) {
+                    tied++;
+                }
+            }
+            if (!lost) {
+                won += 1.0 / (tied + 1);
+            }
+            iterations++;
+        }
+        lastIterations = iterations;
+        return won / iterations;
+    }
+
+    // One Fisher-Yates step over deck[0, available): moves a random undrawn card to index.
+    private int draw(int index, int available) {
+        int j = index + random.nextInt(available - index);
+        int card = deck[j];
+        deck[j] = deck[index];
+        deck[index] = card;
+        return card;
+    }
+
+    // Monte Carlo iterations behind the last decision; 0 if no estimate was needed.
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    public double getLastEquity() {
+        return lastEquity;
+    }
+}
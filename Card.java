@@ -1,22 +1,100 @@
+import java.util.*;
+
 public class Card {
+    static final String[] SUITS = {"Hearts", "Diamonds", "Clubs", "Spades"};
+    static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+
+    // Canonical instances indexed by id = rankIndex * 4 + suitIndex.
+    private static final Card[] CARDS = createCards();
+
     private final String suit;
     private final String rank;
-    
-    public Card(String suit, String rank) {
+    private final int id;
+    private final String name;
+
+    private Card(String suit, String rank, int id) {
         this.suit = suit;
         this.rank = rank;
+        this.id = id;
+        this.name = rank + " of " + suit;
     }
-    
+
+    private static Card[] createCards() {
+        Card[] cards = new Card[52];
+        for (int r = 0; r < RANKS.length; r++) {
+            for (int s = 0; s < SUITS.length; s++) {
+                int id = r * 4 + s;
+                cards[id] = new Card(SUITS[s], RANKS[r], id);
+            }
+        }
+        return cards;
+    }
+
+    public static Card of(int id) {
+        return CARDS[id];
+    }
+
+    public static Card of(String suit, String rank) {
+        int r = indexOf(RANKS, rank);
+        int s = indexOf(SUITS, suit);
+        if (r < 0 || s < 0) {
+            throw new IllegalArgumentException("Unknown card: " + rank + " of " + suit);
+        }
+        return CARDS[r * 4 + s];
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public String getSuit() {
         return suit;
     }
-    
+
     public String getRank() {
         return rank;
     }
-    
+
+    public int getId() {
+        return id;
+    }
+
+    public int getRankIndex() {
+        return id >>> 2;
+    }
+
+    public int getSuitIndex() {
+        return id & 3;
+    }
+
+    public long getMask() {
+        return 1L << id;
+    }
+
+    public static long toMask(List<Card> cards) {
+        long mask = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            mask |= 1L << cards.get(i).id;
+        }
+        return mask;
+    }
+
+    public static List<Card> fromMask(long mask) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            cards.add(CARDS[Long.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return cards;
+    }
+
     @Override
     public String toString() {
-        return rank + " of " + suit;
+        return name;
     }
 }
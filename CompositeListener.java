@@ -0,0 +1,87 @@
+import java.util.*;
+
+// Forwards every event to several listeners in order.
+public class CompositeListener implements GameListener {
+    private final List<GameListener> listeners;
+
+    public CompositeListener(GameListener... listeners) {
+        this.listeners = Arrays.asList(listeners.clone());
+    }
+
+    @Override
+    public void onHandStart(PokerGame game) {
+        for (GameListener listener : listeners) {
+            listener.onHandStart(game);
+        }
+    }
+
+    @Override
+    public void onHandResumed(PokerGame game) {
+        for (GameListener listener : listeners) {
+            listener.onHandResumed(game);
+        }
+    }
+
+    @Override
+    public void onCommunityCards(List<Card> communityCards) {
+        for (GameListener listener : listeners) {
+            listener.onCommunityCards(communityCards);
+        }
+    }
+
+    @Override
+    public void onBettingRoundStart(String roundName) {
+        for (GameListener listener : listeners) {
+            listener.onBettingRoundStart(roundName);
+        }
+    }
+
+    @Override
+    public void onTurn(PokerGame game, Player player) {
+        for (GameListener listener : listeners) {
+            listener.onTurn(game, player);
+        }
+    }
+
+    @Override
+    public void onAllIn(Player player) {
+        for (GameListener listener : listeners) {
+            listener.onAllIn(player);
+        }
+    }
+
+    @Override
+    public void onAction(Player player, Action action) {
+        for (GameListener listener : listeners) {
+            listener.onAction(player, action);
+        }
+    }
+
+    @Override
+    public void onBetCapped(Player player, ActionType type) {
+        for (GameListener listener : listeners) {
+            listener.onBetCapped(player, type);
+        }
+    }
+
+    @Override
+    public void onInvalidRaise(Player player) {
+        for (GameListener listener : listeners) {
+            listener.onInvalidRaise(player);
+        }
+    }
+
+    @Override
+    public void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+        for (GameListener listener : listeners) {
+            listener.onPotAwarded(potIndex, amount, winners);
+        }
+    }
+
+    @Override
+    public void onHandEnd(PokerGame game) {
+        for (GameListener listener : listeners) {
+            listener.onHandEnd(game);
+        }
+    }
+}
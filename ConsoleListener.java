@@ -0,0 +1,209 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+import java.util.*;
+
+// Renders a table's events as text. Lines are built in one reusable StringBuilder and
+// written to the channel in batches: at the end of every hand, whenever the buffer passes
+// BATCH_CHARS, and, for a human at the console, before each turn so the prompt follows the
+// table. Not thread-safe: tables playing concurrently must each get their own listener
+// (see TableManager), with its own level of detail:
+//   FULL     every bet, the board and the hand before each turn, as the console always showed
+//   CHANGES  on each turn only the bets that changed since the last one
+//   NONE     nothing; events return at once
+public class ConsoleListener implements GameListener {
+    public enum Detail {
+        FULL,
+        CHANGES,
+        NONE
+    }
+
+    private static final int BATCH_CHARS = 8192;
+
+    private final WritableByteChannel out;
+    private final String prefix;
+    private final Detail detail;
+    private final boolean flushEveryTurn;
+    private final StringBuilder text = new StringBuilder(BATCH_CHARS * 2);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer bytes = ByteBuffer.allocate(BATCH_CHARS * 2);
+    // Bets as last shown, per seat, for CHANGES.
+    private int[] shownBets = new int[0];
+
+    // Interactive play on standard output.
+    public ConsoleListener() {
+        this(Channels.newChannel(System.out), "", Detail.FULL, true);
+    }
+
+    // For spectating or logging tables: prefix starts every line (e.g. "[table 3] ") and
+    // output is written once per hand.
+    public ConsoleListener(WritableByteChannel out, String prefix, Detail detail) {
+        this(out, prefix, detail, false);
+    }
+
+    private ConsoleListener(WritableByteChannel out, String prefix, Detail detail, boolean flushEveryTurn) {
+        this.out = out;
+        this.prefix = prefix;
+        this.detail = detail;
+        this.flushEveryTurn = flushEveryTurn;
+    }
+
+    @Override
+    public void onHandStart(PokerGame game) {
+        Arrays.fill(shownBets, 0);
+    }
+
+    @Override
+    public void onCommunityCards(List<Card> communityCards) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        appendCards(line().append("Community cards: "), communityCards).append('\n');
+    }
+
+    @Override
+    public void onBettingRoundStart(String roundName) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        line().append("Starting ").append(roundName).append(" betting round.\n");
+    }
+
+    @Override
+    public void onTurn(PokerGame game, Player player) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        List<Player> players = game.getPlayers();
+        if (detail == Detail.FULL) {
+            line().append("Current player bets:\n");
+            for (Player p : players) {
+                line().append(p.getName()).append(": ").append(p.getCurrentBet()).append('\n');
+            }
+            appendCards(line().append("Community cards: "), game.getCommunityCards()).append('\n');
+            appendCards(line().append("Your hand: "), player.getHand()).append('\n');
+            line().append("Current bet: ").append(game.getCurrentBet()).append('\n');
+        } else {
+            if (shownBets.length < players.size()) {
+                shownBets = Arrays.copyOf(shownBets, players.size());
+            }
+            boolean changed = false;
+            for (int seat = 0; seat < players.size(); seat++) {
+                int bet = players.get(seat).getCurrentBet();
+                if (bet != shownBets[seat]) {
+                    if (changed) {
+                        text.append(", ");
+                    } else {
+                        line().append("Bets: ");
+                    }
+                    text.append(players.get(seat).getName()).append(' ').append(bet);
+                    shownBets[seat] = bet;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                text.append('\n');
+            }
+        }
+        line().append(player.getName()).append("'s turn. Current chips: ").append(player.getChips())
+                .append('\n');
+        if (flushEveryTurn || text.length() >= BATCH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onAllIn(Player player) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        line().append(player.getName()).append(" is all-in with ").append(player.getChips()).append(" chips.\n");
+    }
+
+    @Override
+    public void onBetCapped(Player player, ActionType type) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        String action = type == ActionType.RAISE ? "Raise" : "Call";
+        line().append(action).append(" amount exceeds your chips. Setting ").append(action.toLowerCase())
+                .append(" amount to max possible: ").append(player.getChips()).append('\n');
+    }
+
+    @Override
+    public void onInvalidRaise(Player player) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        line().append("Invalid action. You cannot raise, so you call.\n");
+    }
+
+    @Override
+    public void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+        if (detail == Detail.NONE) {
+            return;
+        }
+        if (winners.size() == 1) {
+            appendPot(line(), potIndex).append(" winner is: ").append(winners.get(0).getName()).append(" with ")
+                    .append(amount).append(" chips.\n");
+            return;
+        }
+        appendPot(line().append("There is a tie for ").append(potIndex == 0 ? "the " : ""), potIndex).append(".\n");
+        line().append("The pot of ").append(amount)
+                .append(" chips will be divided equally among the following players:\n");
+        for (Player tiePlayer : winners) {
+            line().append(tiePlayer.getName()).append('\n');
+        }
+    }
+
+    @Override
+    public void onHandEnd(PokerGame game) {
+        flush();
+    }
+
+    // Writes out everything rendered so far.
+    public void flush() {
+        if (text.length() == 0) {
+            return;
+        }
+        if (bytes.capacity() < text.length() * 3) {
+            bytes = ByteBuffer.allocate(text.length() * 3);
+        }
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(text), bytes, true);
+        encoder.flush(bytes);
+        bytes.flip();
+        text.setLength(0);
+        try {
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write table output", e);
+        }
+    }
+
+    private StringBuilder line() {
+        return text.append(prefix);
+    }
+
+    private static StringBuilder appendPot(StringBuilder text, int potIndex) {
+        return potIndex == 0 ? text.append("Main Pot") : text.append("Side Pot ").append(potIndex);
+    }
+
+    // Same text as List.toString(), without building the string first.
+    private static StringBuilder appendCards(StringBuilder text, List<Card> cards) {
+        text.append('[');
+        for (int i = 0; i < cards.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(cards.get(i).toString());
+        }
+        return text.append(']');
+    }
+}
@@ -0,0 +1,37 @@
+import java.util.*;
+
+public class ConsoleStrategy implements PlayerStrategy {
+    private final Scanner scanner;
+
+    public ConsoleStrategy(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public Action decide(PokerGame game, Player player) {
+        boolean facingBet = player.getCurrentBet() != game.getCurrentBet();
+        boolean canRaise = game.canRaise(player);
+        String matchAction = facingBet ? "Call" : "Check";
+        if (canRaise) {
+            System.out.println("Choose action: 1) Fold 2) " + matchAction + " 3) Raise");
+        } else {
+            System.out.println("Choose action: 1) Fold 2) " + matchAction);
+        }
+        int action = scanner.nextInt();
+        switch (action) {
+            case 1:
+                return Action.fold();
+            case 2:
+                return facingBet ? Action.call() : Action.check();
+            case 3:
+                if (!canRaise) {
+                    return Action.raise(0);
+                }
+                System.out.println("Enter raise amount:");
+                return Action.raise(scanner.nextInt());
+            default:
+                System.out.println("Invalid action. Folding by default.");
+                return Action.fold();
+        }
+    }
+}
@@ -1,24 +1,125 @@
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 public class Deck {
-    private List<Card> cards;
-    
+    // cards[0..dealt) have been dealt or removed, cards[dealt..52) are still in the deck.
+    private final int[] cards;
+    private final int[] positions;
+    private final RandomGenerator random;
+    private int dealt;
+    private long dealtMask;
+
     public Deck() {
-        cards = new ArrayList<>();
-        String[] suits = {"Hearts", "Diamonds", "Clubs", "Spades"};
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-        
-        for (String suit : suits) {
-            for (String rank : ranks) {
-                cards.add(new Card(suit, rank));
-            }
+        this(new SplittableRandom());
+    }
+
+    public Deck(RandomGenerator random) {
+        this.random = random;
+        this.cards = new int[52];
+        this.positions = new int[52];
+        for (int id = 0; id < 52; id++) {
+            cards[id] = id;
+            positions[id] = id;
         }
-        
-        Collections.shuffle(cards);
     }
-    
+
+    // Reproducible deck for simulations.
+    public static Deck seeded(long seed) {
+        return new Deck(RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(seed));
+    }
+
+    // Cryptographically strong deck for real-money tables.
+    public static Deck secure() {
+        return new Deck(new SecureRandom());
+    }
+
+    // Returns every card to the deck. The shuffle happens lazily as cards are dealt.
+    public void reset() {
+        dealt = 0;
+        dealtMask = 0;
+    }
+
     public Card dealCard() {
-        return cards.remove(cards.size() - 1);
+        return Card.of(dealCardId());
+    }
+
+    public int dealCardId() {
+        if (dealt == cards.length) {
+            throw new IllegalStateException("No cards left in the deck");
+        }
+        // One Fisher-Yates step: pick uniformly among the cards not dealt yet.
+        swap(dealt, dealt + random.nextInt(cards.length - dealt));
+        int id = cards[dealt++];
+        dealtMask |= 1L << id;
+        return id;
+    }
+
+    // Takes a known card (dead card or someone's hole card) out of the deck without dealing it.
+    public void removeCard(int id) {
+        if ((dealtMask & (1L << id)) != 0) {
+            throw new IllegalArgumentException("Card already dealt: " + Card.of(id));
+        }
+        swap(dealt, positions[id]);
+        dealt++;
+        dealtMask |= 1L << id;
     }
 
+    public void removeCards(long mask) {
+        while (mask != 0) {
+            removeCard(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+    }
+
+    public int remaining() {
+        return cards.length - dealt;
+    }
+
+    public long getDealtMask() {
+        return dealtMask;
+    }
+
+    // Deal count and card order for PokerGame snapshots. Cards past the dealt ones are not
+    // shuffled yet, so their order carries no information.
+    void writeTo(ByteBuffer out) {
+        out.put((byte) dealt);
+        for (int card : cards) {
+            out.put((byte) card);
+        }
+    }
+
+    void readFrom(ByteBuffer in) {
+        int count = in.get();
+        if (count < 0 || count > cards.length) {
+            throw new IllegalArgumentException("Snapshot deck cannot have " + count + " cards dealt");
+        }
+        long seen = 0;
+        long mask = 0;
+        for (int i = 0; i < cards.length; i++) {
+            int id = in.get();
+            if (id < 0 || id >= cards.length || (seen & (1L << id)) != 0) {
+                throw new IllegalArgumentException("Snapshot deck is not a permutation of the 52 cards");
+            }
+            seen |= 1L << id;
+            cards[i] = id;
+            positions[id] = i;
+            if (i < count) {
+                mask |= 1L << id;
+            }
+        }
+        dealt = count;
+        dealtMask = mask;
+    }
+
+    private void swap(int i, int j) {
+        int a = cards[i];
+        int b = cards[j];
+        cards[i] = b;
+        cards[j] = a;
+        positions[b] = i;
+        positions[a] = j;
+    }
 }
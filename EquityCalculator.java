@@ -0,0 +1,229 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Monte Carlo all-in equity. Rollouts run in parallel batches, each with its own deck,
+// RNG and accumulator; batches are merged on the calling thread between rounds. Several
+// threads may share one calculator: batch seeds are split off seedSource under its lock.
+public class EquityCalculator {
+    private static final int BATCH_SIZE = 20000;
+
+    private final ForkJoinPool pool;
+    private final SplittableRandom seedSource;
+
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    public EquityCalculator(ForkJoinPool pool, SplittableRandom seedSource) {
+        this.pool = pool;
+        this.seedSource = seedSource;
+    }
+
+    // A hand with fewer than two cards is completed at random on every rollout.
+    // Stops at maxTrials, after timeLimitMillis (0 or less for no time limit), or once the 95%
+    // confidence interval of every player's equity is within +/- targetHalfWidth (0 disables
+    // early stopping).
+    public EquityResult calculate(List<List<Card>> hands, List<Card> communityCards, List<Card> deadCards,
+                                  long maxTrials, long timeLimitMillis, double targetHalfWidth) {
+        int players = hands.size();
+        if (players < 2) {
+            throw new IllegalArgumentException("Equity needs at least two players");
+        }
+        if (communityCards.size() > 5) {
+            throw new IllegalArgumentException("At most five community cards, got " + communityCards.size());
+        }
+        int[] holeCards = new int[players * 2];
+        Arrays.fill(holeCards, -1);
+        long knownMask = Card.toMask(communityCards) | Card.toMask(deadCards);
+        int knownCount = communityCards.size() + deadCards.size();
+        for (int p = 0; p < players; p++) {
+            List<Card> hand = hands.get(p);
+            if (hand.size() > 2) {
+                throw new IllegalArgumentException("Player " + (p + 1) + " has more than two hole cards");
+            }
+            for (int c = 0; c < hand.size(); c++) {
+                holeCards[p * 2 + c] = hand.get(c).getId();
+            }
+            knownMask |= Card.toMask(hand);
+            knownCount += hand.size();
+        }
+        if (Long.bitCount(knownMask) != knownCount) {
+            throw new IllegalArgumentException("The same card appears more than once");
+        }
+        int[] board = new int[5];
+        for (int i = 0; i < communityCards.size(); i++) {
+            board[i] = communityCards.get(i).getId();
+        }
+
+        // Saturates rather than overflowing for very long limits.
+        long start = System.nanoTime();
+        long budget = timeLimitMillis <= 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        long deadline = budget >= Long.MAX_VALUE - start ? Long.MAX_VALUE : start + budget;
+        int parallelism = pool.getParallelism();
+        Accumulator total = new Accumulator(players);
+        while (total.trials < maxTrials && System.nanoTime() < deadline) {
+            List<Callable<Accumulator>> batches = new ArrayList<>(parallelism);
+            long left = maxTrials - total.trials;
+            for (int i = 0; i < parallelism && left > 0; i++) {
+                int size = (int) Math.min(BATCH_SIZE, left);
+                left -= size;
+                batches.add(new Rollout(holeCards, board, communityCards.size(), knownMask, size,
+                        splitSeed(), deadline));
+            }
+            for (Future<Accumulator> batch : pool.invokeAll(batches)) {
+                total.merge(join(batch));
+            }
+            if (targetHalfWidth > 0 && total.maxHalfWidth() <= targetHalfWidth) {
+                break;
+            }
+        }
+        return total.toResult();
+    }
+
+    private SplittableRandom splitSeed() {
+        synchronized (seedSource) {
+            return seedSource.split();
+        }
+    }
+
+    private static Accumulator join(Future<Accumulator> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Equity calculation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Equity rollout failed", e.getCause());
+        }
+    }
+
+    private static final class Rollout implements Callable<Accumulator> {
+        private final int[] holeCards;
+        private final int[] board;
+        private final int knownBoardCards;
+        private final long knownMask;
+        private final int trials;
+        private final SplittableRandom random;
+        private final long deadline;
+
+        Rollout(int[] holeCards, int[] board, int knownBoardCards, long knownMask, int trials,
+                SplittableRandom random, long deadline) {
+            this.holeCards = holeCards;
+            this.board = board;
+            this.knownBoardCards = knownBoardCards;
+            this.knownMask = knownMask;
+            this.trials = trials;
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Accumulator call() {
+            int players = holeCards.length / 2;
+            Accumulator acc = new Accumulator(players);
+            Deck deck = new Deck(random);
+            int[] cards = holeCards.clone();
+            int[] runout = board.clone();
+            int[] scores = new int[players];
+            for (int t = 0; t < trials; t++) {
+                // Checking the clock every 1024 rollouts keeps it off the hot path.
+                if ((t & 1023) == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                deck.reset();
+                deck.removeCards(knownMask);
+                for (int i = 0; i < cards.length; i++) {
+                    if (holeCards[i] < 0) {
+                        cards[i] = deck.dealCardId();
+                    }
+                }
+                for (int i = knownBoardCards; i < 5; i++) {
+                    runout[i] = deck.dealCardId();
+                }
+                int best = -1;
+                int winners = 0;
+                for (int p = 0; p < players; p++) {
+                    int score = HandEvaluator.evaluate(cards[p * 2], cards[p * 2 + 1],
+                            runout[0], runout[1], runout[2], runout[3], runout[4]);
+                    scores[p] = score;
+                    if (score > best) {
+                        best = score;
+                        winners = 1;
+                    } else if (score == best) {
+                        winners++;
+                    }
+                }
+                acc.record(scores, best, winners);
+            }
+            return acc;
+        }
+    }
+
+    private static final class Accumulator {
+        private long trials;
+        private final long[] wins;
+        private final long[] ties;
+        private final double[] equitySum;
+        private final double[] equitySquares;
+
+        Accumulator(int players) {
+            wins = new long[players];
+            ties = new long[players];
+            equitySum = new double[players];
+            equitySquares = new double[players];
+        }
+
+        void record(int[] scores, int best, int winners) {
+            trials++;
+            double share = 1.0 / winners;
+            for (int p = 0; p < scores.length; p++) {
+                if (scores[p] == best) {
+                    if (winners == 1) {
+                        wins[p]++;
+                    } else {
+                        ties[p]++;
+                    }
+                    equitySum[p] += share;
+                    equitySquares[p] += share * share;
+                }
+            }
+        }
+
+        void merge(Accumulator other) {
+            trials += other.trials;
+            for (int p = 0; p < wins.length; p++) {
+                wins[p] += other.wins[p];
+                ties[p] += other.ties[p];
+                equitySum[p] += other.equitySum[p];
+                equitySquares[p] += other.equitySquares[p];
+            }
+        }
+
+        double standardError(int p) {
+            if (trials < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double mean = equitySum[p] / trials;
+            double variance = Math.max(0, equitySquares[p] / trials - mean * mean);
+            return Math.sqrt(variance / (trials - 1));
+        }
+
+        double maxHalfWidth() {
+            double max = 0;
+            for (int p = 0; p < wins.length; p++) {
+                max = Math.max(max, 1.96 * standardError(p));
+            }
+            return max;
+        }
+
+        EquityResult toResult() {
+            double[] equity = new double[wins.length];
+            double[] errors = new double[wins.length];
+            for (int p = 0; p < wins.length; p++) {
+                equity[p] = trials == 0 ? 0 : equitySum[p] / trials;
+                errors[p] = standardError(p);
+            }
+            return new EquityResult(trials, wins, ties, equity, errors);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+public class EquityResult {
+    private final long trials;
+    private final long[] wins;
+    private final long[] ties;
+    private final double[] equity;
+    private final double[] standardError;
+
+    public EquityResult(long trials, long[] wins, long[] ties, double[] equity, double[] standardError) {
+        this.trials = trials;
+        this.wins = wins;
+        this.ties = ties;
+        this.equity = equity;
+        this.standardError = standardError;
+    }
+
+    public int getPlayerCount() {
+        return wins.length;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public double getWinPercentage(int player) {
+        return trials == 0 ? 0 : 100.0 * wins[player] / trials;
+    }
+
+    public double getTiePercentage(int player) {
+        return trials == 0 ? 0 : 100.0 * ties[player] / trials;
+    }
+
+    public double getEquityPercentage(int player) {
+        return 100.0 * equity[player];
+    }
+
+    public double getEquity(int player) {
+        return equity[player];
+    }
+
+    // Zero for exact results.
+    public double getStandardError(int player) {
+        return standardError[player];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < wins.length; i++) {
+            sb.append(String.format("Player %d: win %.2f%%, tie %.2f%%, equity %.2f%%%n",
+                    i + 1, getWinPercentage(i), getTiePercentage(i), getEquityPercentage(i)));
+        }
+        sb.append("Trials: ").append(trials);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+import java.io.*;
+import java.nio.file.*;
+
+// Offline builder for the evaluator table file that HandEvaluator maps when started with
+// -Dpoker.evaluatorTables=<file>. The file is versioned and checksummed; regenerate it
+// whenever HandEvaluator.TABLES_VERSION changes.
+// Usage: java EvaluatorTableGenerator [output-file]
+public class EvaluatorTableGenerator {
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : "evaluator_tables.bin");
+        long start = System.nanoTime();
+        HandEvaluator.writeTables(HandEvaluator.buildTables(), output);
+        System.out.printf("Wrote %s (%d bytes) in %.1f s%n", output, Files.size(output),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Exact all-in equity by walking every remaining runout. Work is split across the pool
+// by first runout card, and results are cached under a suit-isomorphic key so repeated
+// spots are answered without enumerating again.
+public class ExactEquityCalculator {
+    private static final int[][] SUIT_PERMUTATIONS = createSuitPermutations();
+
+    private final ForkJoinPool pool;
+    private final Map<Key, EquityResult> cache;
+
+    public ExactEquityCalculator() {
+        this(ForkJoinPool.commonPool(), 10000);
+    }
+
+    public ExactEquityCalculator(ForkJoinPool pool, int cacheSize) {
+        this.pool = pool;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Key, EquityResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, EquityResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public EquityResult calculate(List<List<Card>> hands, List<Card> communityCards, List<Card> deadCards) {
+        int players = hands.size();
+        if (players < 2) {
+            throw new IllegalArgumentException("Equity needs at least two players");
+        }
+        if (communityCards.size() > 5) {
+            throw new IllegalArgumentException("At most five community cards, got " + communityCards.size());
+        }
+        long[] handMasks = new long[players];
+        long knownMask = Card.toMask(communityCards) | Card.toMask(deadCards);
+        int knownCount = communityCards.size() + deadCards.size();
+        for (int p = 0; p < players; p++) {
+            List<Card> hand = hands.get(p);
+            if (hand.size() != 2) {
+                throw new IllegalArgumentException("Player " + (p + 1) + " needs exactly two hole cards");
+            }
+            handMasks[p] = Card.toMask(hand);
+            knownMask |= handMasks[p];
+            knownCount += 2;
+        }
+        if (Long.bitCount(knownMask) != knownCount) {
+            throw new IllegalArgumentException("The same card appears more than once");
+        }
+
+        Key key = Key.canonical(Card.toMask(communityCards), Card.toMask(deadCards), handMasks);
+        EquityResult cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        EquityResult result = enumerate(hands, communityCards, knownMask);
+        cache.put(key, result);
+        return result;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private EquityResult enumerate(List<List<Card>> hands, List<Card> communityCards, long knownMask) {
+        int players = hands.size();
+        int[] holeCards = new int[players * 2];
+        for (int p = 0; p < players; p++) {
+            holeCards[p * 2] = hands.get(p).get(0).getId();
+            holeCards[p * 2 + 1] = hands.get(p).get(1).getId();
+        }
+        int[] board = new int[5];
+        for (int i = 0; i < communityCards.size(); i++) {
+            board[i] = communityCards.get(i).getId();
+        }
+        int[] remaining = new int[52 - Long.bitCount(knownMask)];
+        int n = 0;
+        for (int id = 0; id < 52; id++) {
+            if ((knownMask & (1L << id)) == 0) {
+                remaining[n++] = id;
+            }
+        }
+
+        int missing = 5 - communityCards.size();
+        Tally total = new Tally(players);
+        if (missing == 0) {
+            total.score(holeCards, board);
+        } else {
+            List<Callable<Tally>> tasks = new ArrayList<>();
+            for (int first = 0; first <= remaining.length - missing; first++) {
+                tasks.add(new Runouts(holeCards, board, communityCards.size(), remaining, first));
+            }
+            for (Future<Tally> task : pool.invokeAll(tasks)) {
+                total.merge(join(task));
+            }
+        }
+        return total.toResult();
+    }
+
+    private static Tally join(Future<Tally> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Equity enumeration interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Equity enumeration failed", e.getCause());
+        }
+    }
+
+    // All runouts whose lowest missing card is remaining[first].
+    private static final class Runouts implements Callable<Tally> {
+        private final int[] holeCards;
+        private final int[] board;
+        private final int knownBoardCards;
+        private final int[] remaining;
+        private final int first;
+
+        Runouts(int[] holeCards, int[] board, int knownBoardCards, int[] remaining, int first) {
+            this.holeCards = holeCards;
+            this.board = board.clone();
+            this.knownBoardCards = knownBoardCards;
+            this.remaining = remaining;
+            this.first = first;
+        }
+
+        @Override
+        public Tally call() {
+            Tally tally = new Tally(holeCards.length / 2);
+            board[knownBoardCards] = remaining[first];
+            deal(tally, knownBoardCards + 1, first + 1);
+            return tally;
+        }
+
+        private void deal(Tally tally, int boardSize, int start) {
+            if (boardSize == 5) {
+                tally.score(holeCards, board);
+                return;
+            }
+            for (int i = start; i <= remaining.length - (5 - boardSize); i++) {
+                board[boardSize] = remaining[i];
+                deal(tally, boardSize + 1, i + 1);
+            }
+        }
+    }
+
+    private static final class Tally {
+        private long boards;
+        private final long[] wins;
+        private final long[] ties;
+        private final double[] equity;
+        private final int[] scores;
+
+        Tally(int players) {
+            wins = new long[players];
+            ties = new long[players];
+            equity = new double[players];
+            scores = new int[players];
+        }
+
+        void score(int[] holeCards, int[] board) {
+            int best = -1;
+            int winners = 0;
+            for (int p = 0; p < scores.length; p++) {
+                int score = HandEvaluator.evaluate(holeCards[p * 2], holeCards[p * 2 + 1],
+                        board[0], board[1], board[2], board[3], board[4]);
+                scores[p] = score;
+                if (score > best) {
+                    best = score;
+                    winners = 1;
+                } else if (score == best) {
+                    winners++;
+                }
+            }
+            boards++;
+            for (int p = 0; p < scores.length; p++) {
+                if (scores[p] == best) {
+                    if (winners == 1) {
+                        wins[p]++;
+                    } else {
+                        ties[p]++;
+                    }
+                    equity[p] += 1.0 / winners;
+                }
+            }
+        }
+
+        void merge(Tally other) {
+            boards += other.boards;
+            for (int p = 0; p < wins.length; p++) {
+                wins[p] += other.wins[p];
+                ties[p] += other.ties[p];
+                equity[p] += other.equity[p];
+            }
+        }
+
+        EquityResult toResult() {
+            double[] shares = new double[wins.length];
+            for (int p = 0; p < wins.length; p++) {
+                shares[p] = equity[p] / boards;
+            }
+            return new EquityResult(boards, wins, ties, shares, new double[wins.length]);
+        }
+    }
+
+    // Board, dead cards and hands (in seat order) under the suit relabelling that gives the
+    // smallest masks, so spots that differ only by suit names share one cache entry.
+    private static final class Key {
+        private final long[] masks;
+        private final int hash;
+
+        private Key(long[] masks) {
+            this.masks = masks;
+            this.hash = Arrays.hashCode(masks);
+        }
+
+        static Key canonical(long board, long dead, long[] hands) {
+            long[] best = null;
+            long[] candidate = new long[hands.length + 2];
+            for (int[] permutation : SUIT_PERMUTATIONS) {
+                candidate[0] = permute(board, permutation);
+                candidate[1] = permute(dead, permutation);
+                for (int p = 0; p < hands.length; p++) {
+                    candidate[p + 2] = permute(hands[p], permutation);
+                }
+                if (best == null || Arrays.compareUnsigned(candidate, best) < 0) {
+                    best = candidate.clone();
+                }
+            }
+            return new Key(best);
+        }
+
+        private static long permute(long mask, int[] permutation) {
+            long result = 0;
+            while (mask != 0) {
+                int id = Long.numberOfTrailingZeros(mask);
+                result |= 1L << ((id & ~3) | permutation[id & 3]);
+                mask &= mask - 1;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(masks, ((Key) o).masks);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static int[][] createSuitPermutations() {
+        List<int[]> permutations = new ArrayList<>();
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        permutations.add(new int[]{a, b, c, d});
+                    }
+                }
+            }
+        }
+        return permutations.toArray(new int[0][]);
+    }
+}
@@ -0,0 +1,46 @@
+import java.util.*;
+
+// Receives everything PokerGame reports while a hand is played. All methods default to no-ops.
+public interface GameListener {
+    GameListener NONE = new GameListener() {
+    };
+
+    // Called once hole cards are dealt and blinds posted.
+    default void onHandStart(PokerGame game) {
+    }
+
+    // Called instead of onHandStart when a hand restored from a snapshot is played on; events
+    // from before the snapshot were never seen. By default treated as the start of the hand.
+    default void onHandResumed(PokerGame game) {
+        onHandStart(game);
+    }
+
+    default void onCommunityCards(List<Card> communityCards) {
+    }
+
+    default void onBettingRoundStart(String roundName) {
+    }
+
+    default void onTurn(PokerGame game, Player player) {
+    }
+
+    default void onAllIn(Player player) {
+    }
+
+    // The action as applied: a call of nothing is a check, a refused raise a call, and a raise
+    // carries the increment actually added to the bet.
+    default void onAction(Player player, Action action) {
+    }
+
+    default void onBetCapped(Player player, ActionType type) {
+    }
+
+    default void onInvalidRaise(Player player) {
+    }
+
+    default void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+    }
+
+    default void onHandEnd(PokerGame game) {
+    }
+}
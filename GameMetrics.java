@@ -0,0 +1,163 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.*;
+
+// Where time goes while tables play: decision waits, betting rounds, showdown evaluation and
+// pot settlement, plus hand, action, fold and all-in counts. Recording is lock-free so all
+// tables can share global(). Readable through JMX and as a Prometheus text file.
+//
+// Each timing costs two clock reads, about 40-80ns. That is noise next to a human or remote
+// decision but not next to a bot that decides in nanoseconds, so simulations can count
+// without timing.
+public class GameMetrics implements GameMetricsMXBean {
+    private static final GameMetrics GLOBAL = new GameMetrics(true);
+
+    final LatencyHistogram decisionWait = new LatencyHistogram();
+    final LatencyHistogram bettingRound = new LatencyHistogram();
+    final LatencyHistogram showdown = new LatencyHistogram();
+    final LatencyHistogram potSettlement = new LatencyHistogram();
+    final LongAdder hands = new LongAdder();
+    final LongAdder actions = new LongAdder();
+    final LongAdder folds = new LongAdder();
+    final LongAdder allIns = new LongAdder();
+    private final boolean timed;
+    private final long createdNanos = System.nanoTime();
+
+    public GameMetrics(boolean timed) {
+        this.timed = timed;
+    }
+
+    // Shared by every PokerGame unless it is given its own.
+    public static GameMetrics global() {
+        return GLOBAL;
+    }
+
+    long startTimer() {
+        return timed ? System.nanoTime() : 0;
+    }
+
+    void stopTimer(LatencyHistogram histogram, long start) {
+        if (timed) {
+            histogram.recordSince(start);
+        }
+    }
+
+    @Override
+    public long getHands() {
+        return hands.sum();
+    }
+
+    // Average since the metrics were created.
+    @Override
+    public double getHandsPerSecond() {
+        return hands.sum() * 1e9 / Math.max(1, System.nanoTime() - createdNanos);
+    }
+
+    @Override
+    public long getActions() {
+        return actions.sum();
+    }
+
+    @Override
+    public long getFolds() {
+        return folds.sum();
+    }
+
+    @Override
+    public long getAllIns() {
+        return allIns.sum();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getDecisionWait() {
+        return decisionWait.summarize();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getBettingRound() {
+        return bettingRound.summarize();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getShowdown() {
+        return showdown.summarize();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getPotSettlement() {
+        return potSettlement.summarize();
+    }
+
+    // Registers under poker:type=GameMetrics,name=<name> on the platform MBean server.
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("poker:type=GameMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    // Prometheus text exposition format; latencies as summaries in seconds.
+    public void writePrometheus(Appendable out) throws IOException {
+        counter(out, "poker_hands_total", "Hands played.", hands.sum());
+        counter(out, "poker_actions_total", "Player decisions applied.", actions.sum());
+        counter(out, "poker_folds_total", "Folds.", folds.sum());
+        counter(out, "poker_all_ins_total", "Actions that put a player all in.", allIns.sum());
+        summary(out, "poker_decision_wait_seconds", "Time spent waiting for a strategy to decide.", decisionWait);
+        summary(out, "poker_betting_round_seconds", "Duration of a betting round.", bettingRound);
+        summary(out, "poker_showdown_seconds", "Time to evaluate and rank hands at showdown.", showdown);
+        summary(out, "poker_pot_settlement_seconds", "Time to build, award and pay out the pots.", potSettlement);
+    }
+
+    // Rewrites the file through a temporary sibling so scrapers never see it half written.
+    public void dump(Path file) throws IOException {
+        StringBuilder text = new StringBuilder(4096);
+        writePrometheus(text);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, text.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Dumps to the file every periodMillis on a daemon thread until the returned executor is shut down.
+    public ScheduledExecutorService dumpEvery(Path file, long periodMillis) {
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "poker-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                dump(file);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return dumper;
+    }
+
+    private static void counter(Appendable out, String name, String help, long value) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(Long.toString(value)).append('\n');
+    }
+
+    private static void summary(Appendable out, String name, String help, LatencyHistogram histogram)
+            throws IOException {
+        LatencyHistogram.Summary summary = histogram.summarize();
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        quantile(out, name, "0.5", summary.getP50());
+        quantile(out, name, "0.9", summary.getP90());
+        quantile(out, name, "0.99", summary.getP99());
+        quantile(out, name, "0.999", summary.getP999());
+        out.append(name).append("_sum ").append(Double.toString(summary.getSum() / 1e9)).append('\n');
+        out.append(name).append("_count ").append(Long.toString(summary.getCount())).append('\n');
+    }
+
+    private static void quantile(Appendable out, String name, String quantile, long nanos) throws IOException {
+        out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                .append(Double.toString(nanos / 1e9)).append('\n');
+    }
+}
@@ -0,0 +1,20 @@
+// JMX view of GameMetrics. Latencies are in nanoseconds.
+public interface GameMetricsMXBean {
+    long getHands();
+
+    double getHandsPerSecond();
+
+    long getActions();
+
+    long getFolds();
+
+    long getAllIns();
+
+    LatencyHistogram.Summary getDecisionWait();
+
+    LatencyHistogram.Summary getBettingRound();
+
+    LatencyHistogram.Summary getShowdown();
+
+    LatencyHistogram.Summary getPotSettlement();
+}
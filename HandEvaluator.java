@@ -1,208 +1,459 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
+// Scores come from lookup tables built in process at class load, or, when the system
+// property poker.evaluatorTables names a file written by EvaluatorTableGenerator, read
+// straight from that file mapped read-only. Mapped tables live in the OS page cache and are
+// shared by every JVM on the host that maps the same file.
 public class HandEvaluator {
-    private static final Map<String, Integer> RANK_VALUES = createRankValues();
+    static final String TABLES_PROPERTY = "poker.evaluatorTables";
+    static final int TABLES_MAGIC = 0x50455654;
+    static final int TABLES_VERSION = 1;
+    // Magic, version, the four table lengths and the CRC-32 of everything after the header.
+    static final int TABLES_HEADER_BYTES = 7 * 4;
 
-    private static Map<String, Integer> createRankValues() {
-        Map<String, Integer> rankValues = new HashMap<>();
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-        for (int i = 0; i < ranks.length; i++) {
-            rankValues.put(ranks[i], i + 2);
+    private static final String[] HAND_TYPES = {"High Card", "One Pair", "Two Pair", "Three of a Kind", "Straight",
+            "Flush", "Full House", "Four of a Kind", "Straight Flush", "Royal Flush"};
+
+    // WAYS[r][n]: number of ways to spread n cards over r ranks with at most four cards per rank.
+    private static final int[][] WAYS = createWays();
+    // RANK_OFFSETS[r][remaining][count]: index offset contributed by holding count cards of rank r.
+    private static final int[][][] RANK_OFFSETS = createRankOffsets();
+    // Best score of every 13-bit suited rank mask holding five to seven cards.
+    private static final IntBuffer FLUSH_TABLE;
+    // Best non-flush score of every rank multiset of five, six and seven cards, by perfect hash.
+    private static final IntBuffer[] RANK_TABLES = new IntBuffer[8];
+
+    static {
+        String file = System.getProperty(TABLES_PROPERTY);
+        IntBuffer[] tables = file != null ? mapTables(Paths.get(file)) : wrap(buildTables());
+        FLUSH_TABLE = tables[0];
+        for (int n = 5; n <= 7; n++) {
+            RANK_TABLES[n] = tables[n - 4];
         }
-        return rankValues;
     }
 
     public static int evaluateHand(List<Card> hand) {
-        List<List<Card>> combinations = generateCombinations(hand, 5);
-        int bestScore = 0;
-        for (List<Card> combination : combinations) {
-            int score = evaluateCombination(combination);
-            if (score > bestScore) {
-                bestScore = score;
-            }
+        int size = hand.size();
+        if (size < 5) {
+            return 0;
+        }
+        if (size > 7) {
+            return evaluateLargeHand(hand);
+        }
+        long rankKey = 0;
+        long suitMasks = 0;
+        for (int i = 0; i < size; i++) {
+            int id = hand.get(i).getId();
+            rankKey += 1L << ((id >>> 2) * 3);
+            suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
         }
-        return bestScore;
+        return lookup(rankKey, suitMasks, size);
     }
 
     public static String getHandType(List<Card> hand) {
-        List<List<Card>> combinations = generateCombinations(hand, 5);
-        int bestScore = 0;
-        String bestHandType = "High Card";
-        for (List<Card> combination : combinations) {
-            int score = evaluateCombination(combination);
-            String handType = determineHandType(combination);
-            if (score > bestScore) {
-                bestScore = score;
-                bestHandType = handType;
-            }
-        }
-        return bestHandType;
+        return getHandType(evaluateHand(hand));
     }
 
-    private static String determineHandType(List<Card> combination) {
-        combination.sort(Comparator.comparingInt(c -> RANK_VALUES.get(c.getRank())));
+    public static String getHandType(int score) {
+        return HAND_TYPES[score / 1000000];
+    }
 
-        if (isRoyalFlush(combination)) return "Royal Flush";
-        if (isStraightFlush(combination)) return "Straight Flush";
-        if (isFourOfAKind(combination)) return "Four of a Kind";
-        if (isFullHouse(combination)) return "Full House";
-        if (isFlush(combination)) return "Flush";
-        if (isStraight(combination)) return "Straight";
-        if (isThreeOfAKind(combination)) return "Three of a Kind";
-        if (isTwoPair(combination)) return "Two Pair";
-        if (isOnePair(combination)) return "One Pair";
-        
-        return "High Card";
+    public static int evaluateMask(long cards) {
+        int size = Long.bitCount(cards);
+        if (size < 5) {
+            return 0;
+        }
+        if (size > 7) {
+            return evaluateLargeHand(Card.fromMask(cards));
+        }
+        return lookup(rankKey(cards), suitMasks(cards), size);
     }
 
-    private static int evaluateCombination(List<Card> combination) {
-        combination.sort(Comparator.comparingInt(c -> RANK_VALUES.get(c.getRank())));
+    // Scores hands[0, count) given as struct-of-arrays columns: cards[k][i] is card k of hand i,
+    // for cardCount (5 to 7) columns. Each hand is keyed straight from the columns and its
+    // flush found from per-suit popcounts without branching; scores match evaluate().
+    public static void evaluateBatch(int[][] cards, int cardCount, int count, int[] scores) {
+        if (cardCount < 5 || cardCount > 7) {
+            throw new IllegalArgumentException("Batches hold hands of five to seven cards, got " + cardCount);
+        }
+        for (int i = 0; i < count; i++) {
+            long rankKey = 0;
+            long suitMasks = 0;
+            for (int k = 0; k < cardCount; k++) {
+                int id = cards[k][i];
+                rankKey += 1L << ((id >>> 2) * 3);
+                suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
+            }
+            scores[i] = batchLookup(rankKey, suitMasks, cardCount);
+        }
+    }
 
-        if (isRoyalFlush(combination)) return 9000000;
-        if (isStraightFlush(combination)) return 8000000 + getHighCardValue(combination);
-        if (isFourOfAKind(combination)) return 7000000 + getFourOfAKindValue(combination);
-        if (isFullHouse(combination)) return 6000000 + getFullHouseValue(combination);
-        if (isFlush(combination)) return 5000000 + getHighCardValues(combination);
-        if (isStraight(combination)) return 4000000 + getHighCardValue(combination);
-        if (isThreeOfAKind(combination)) return 3000000 + getThreeOfAKindValue(combination);
-        if (isTwoPair(combination)) return 2000000 + getTwoPairValue(combination);
-        if (isOnePair(combination)) return 1000000 + getOnePairValue(combination);
-        
-        return getHighCardValues(combination);
+    // Same, with each hand given as a mask of exactly cardCount cards.
+    public static void evaluateBatch(long[] hands, int cardCount, int count, int[] scores) {
+        if (cardCount < 5 || cardCount > 7) {
+            throw new IllegalArgumentException("Batches hold hands of five to seven cards, got " + cardCount);
+        }
+        for (int i = 0; i < count; i++) {
+            long rankKey = 0;
+            long suitMasks = 0;
+            for (long cards = hands[i]; cards != 0; cards &= cards - 1) {
+                int id = Long.numberOfTrailingZeros(cards);
+                rankKey += 1L << ((id >>> 2) * 3);
+                suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
+            }
+            scores[i] = batchLookup(rankKey, suitMasks, cardCount);
+        }
     }
 
-    private static boolean isRoyalFlush(List<Card> hand) {
-        return isStraightFlush(hand) && hand.get(4).getRank().equals("A");
+    // lookup() without the suit loop: (4 - popcount) >> 31 keeps a suit's ranks only when it
+    // holds five or more cards, and at most one suit can.
+    private static int batchLookup(long rankKey, long suitMasks, int cardCount) {
+        int s0 = (int) suitMasks & 0x1FFF;
+        int s1 = (int) (suitMasks >>> 16) & 0x1FFF;
+        int s2 = (int) (suitMasks >>> 32) & 0x1FFF;
+        int s3 = (int) (suitMasks >>> 48) & 0x1FFF;
+        int flush = (s0 & ((4 - Integer.bitCount(s0)) >> 31)) | (s1 & ((4 - Integer.bitCount(s1)) >> 31))
+                | (s2 & ((4 - Integer.bitCount(s2)) >> 31)) | (s3 & ((4 - Integer.bitCount(s3)) >> 31));
+        return flush != 0 ? FLUSH_TABLE.get(flush) : RANK_TABLES[cardCount].get(rankIndex(rankKey, cardCount));
     }
 
-    private static boolean isStraightFlush(List<Card> hand) {
-        return isFlush(hand) && isStraight(hand);
+    // Packed 3-bit count per rank of the given cards; keys of disjoint card sets add up.
+    static long rankKey(long cards) {
+        long rankKey = 0;
+        while (cards != 0) {
+            int id = Long.numberOfTrailingZeros(cards);
+            rankKey += 1L << ((id >>> 2) * 3);
+            cards &= cards - 1;
+        }
+        return rankKey;
     }
 
-    private static boolean isFourOfAKind(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        return rankCounts.containsValue(4L);
+    // 13-bit rank mask per suit in 16-bit lanes; masks of disjoint card sets can be or-ed.
+    static long suitMasks(long cards) {
+        long suitMasks = 0;
+        while (cards != 0) {
+            int id = Long.numberOfTrailingZeros(cards);
+            suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
+            cards &= cards - 1;
+        }
+        return suitMasks;
     }
 
-    private static boolean isFullHouse(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        return rankCounts.containsValue(3L) && rankCounts.containsValue(2L);
+    // Card ids follow Card.getId(): rankIndex * 4 + suitIndex.
+    public static int evaluate(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+        long rankKey = (1L << ((c0 >>> 2) * 3)) + (1L << ((c1 >>> 2) * 3)) + (1L << ((c2 >>> 2) * 3))
+                + (1L << ((c3 >>> 2) * 3)) + (1L << ((c4 >>> 2) * 3)) + (1L << ((c5 >>> 2) * 3))
+                + (1L << ((c6 >>> 2) * 3));
+        long suitMasks = (1L << ((c0 & 3) * 16 + (c0 >>> 2))) | (1L << ((c1 & 3) * 16 + (c1 >>> 2)))
+                | (1L << ((c2 & 3) * 16 + (c2 >>> 2))) | (1L << ((c3 & 3) * 16 + (c3 >>> 2)))
+                | (1L << ((c4 & 3) * 16 + (c4 >>> 2))) | (1L << ((c5 & 3) * 16 + (c5 >>> 2)))
+                | (1L << ((c6 & 3) * 16 + (c6 >>> 2)));
+        return lookup(rankKey, suitMasks, 7);
     }
 
-    private static boolean isFlush(List<Card> hand) {
-        String suit = hand.get(0).getSuit();
-        for (Card card : hand) {
-            if (!card.getSuit().equals(suit)) {
-                return false;
-            }
+    public static int evaluate(int[] cards, int offset, int length) {
+        if (length < 5) {
+            return 0;
+        }
+        if (length > 7) {
+            throw new IllegalArgumentException("Fast path evaluates at most 7 cards, got " + length);
         }
-        return true;
+        long rankKey = 0;
+        long suitMasks = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int id = cards[i];
+            rankKey += 1L << ((id >>> 2) * 3);
+            suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
+        }
+        return lookup(rankKey, suitMasks, length);
     }
 
-    private static boolean isStraight(List<Card> hand) {
-        int[] ranks = hand.stream().mapToInt(c -> RANK_VALUES.get(c.getRank())).toArray();
-        for (int i = 0; i < ranks.length - 1; i++) {
-            if (ranks[i] + 1 != ranks[i + 1]) {
-                return false;
+    // rankKey packs a 3-bit count per rank, suitMasks packs a 13-bit rank mask per suit in 16-bit lanes.
+    static int lookup(long rankKey, long suitMasks, int cardCount) {
+        for (int suit = 0; suit < 4; suit++) {
+            int mask = (int) (suitMasks >>> (suit * 16)) & 0x1FFF;
+            if (Integer.bitCount(mask) >= 5) {
+                return FLUSH_TABLE.get(mask);
             }
         }
-        return true;
+        return RANK_TABLES[cardCount].get(rankIndex(rankKey, cardCount));
     }
 
-    private static boolean isThreeOfAKind(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        return rankCounts.containsValue(3L);
+    private static int rankIndex(long rankKey, int cardCount) {
+        int index = 0;
+        int remaining = cardCount;
+        for (int rank = 12; rank >= 0 && remaining > 0; rank--) {
+            int count = (int) (rankKey >>> (rank * 3)) & 7;
+            index += RANK_OFFSETS[rank][remaining][count];
+            remaining -= count;
+        }
+        return index;
     }
 
-    private static boolean isTwoPair(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        return rankCounts.values().stream().filter(count -> count == 2).count() == 2;
+    private static int[][] createWays() {
+        int[][] ways = new int[14][8];
+        ways[0][0] = 1;
+        for (int r = 1; r <= 13; r++) {
+            for (int n = 0; n <= 7; n++) {
+                for (int c = 0; c <= 4 && c <= n; c++) {
+                    ways[r][n] += ways[r - 1][n - c];
+                }
+            }
+        }
+        return ways;
     }
 
-    private static boolean isOnePair(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        return rankCounts.containsValue(2L);
+    private static int[][][] createRankOffsets() {
+        int[][][] offsets = new int[13][8][5];
+        for (int rank = 0; rank < 13; rank++) {
+            for (int remaining = 0; remaining <= 7; remaining++) {
+                int offset = 0;
+                for (int count = 0; count <= 4; count++) {
+                    offsets[rank][remaining][count] = offset;
+                    if (count <= remaining) {
+                        offset += WAYS[rank][remaining - count];
+                    }
+                }
+            }
+        }
+        return offsets;
     }
 
-    private static Map<String, Long> getRankCounts(List<Card> hand) {
-        Map<String, Long> rankCounts = new HashMap<>();
-        for (Card card : hand) {
-            rankCounts.put(card.getRank(), rankCounts.getOrDefault(card.getRank(), 0L) + 1);
+    // The flush table and the five, six and seven card rank tables, in file order.
+    static int[][] buildTables() {
+        int[][] tables = new int[4][];
+        tables[0] = new int[1 << 13];
+        buildFlushTable(tables[0]);
+        for (int n = 5; n <= 7; n++) {
+            tables[n - 4] = new int[WAYS[13][n]];
+            buildRankTable(tables[n - 4], new int[13], 12, n, n);
         }
-        return rankCounts;
+        return tables;
     }
 
-    private static List<List<Card>> generateCombinations(List<Card> cards, int k) {
-        List<List<Card>> combinations = new ArrayList<>();
-        generateCombinationsRecursive(combinations, new ArrayList<>(), cards, k, 0);
-        return combinations;
+    private static IntBuffer[] wrap(int[][] tables) {
+        IntBuffer[] buffers = new IntBuffer[tables.length];
+        for (int t = 0; t < tables.length; t++) {
+            buffers[t] = IntBuffer.wrap(tables[t]);
+        }
+        return buffers;
     }
 
-    private static void generateCombinationsRecursive(List<List<Card>> combinations, List<Card> tempCombination, List<Card> cards, int k, int start) {
-        if (tempCombination.size() == k) {
-            combinations.add(new ArrayList<>(tempCombination));
-            return;
+    // Writes tables as a little-endian table file: the header, then each table in turn.
+    static void writeTables(int[][] tables, Path file) throws IOException {
+        int ints = 0;
+        for (int[] table : tables) {
+            ints += table.length;
         }
-
-        for (int i = start; i < cards.size(); i++) {
-            tempCombination.add(cards.get(i));
-            generateCombinationsRecursive(combinations, tempCombination, cards, k, i + 1);
-            tempCombination.remove(tempCombination.size() - 1);
+        ByteBuffer payload = ByteBuffer.allocate(ints * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int[] table : tables) {
+            payload.asIntBuffer().put(table);
+            payload.position(payload.position() + table.length * 4);
         }
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(TABLES_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(TABLES_MAGIC).putInt(TABLES_VERSION);
+        for (int[] table : tables) {
+            header.putInt(table.length);
+        }
+        header.putInt((int) crc.getValue()).flip();
+        // Written under a temporary name and moved into place, so a mapping JVM never sees half a file.
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, payload});
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
-    private static int getHighCardValue(List<Card> hand) {
-        return RANK_VALUES.get(hand.get(4).getRank());
-    }
-
-    private static int getHighCardValues(List<Card> hand) {
-        int value = 0;
-        for (int i = 4; i >= 0; i--) {
-            value = value * 14 + RANK_VALUES.get(hand.get(i).getRank());
+    // Maps a table file read-only and checks its header, table lengths and checksum.
+    private static IntBuffer[] mapTables(Path file) {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map evaluator tables " + file, e);
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int[] lengths = {1 << 13, WAYS[13][5], WAYS[13][6], WAYS[13][7]};
+        int payloadBytes = 0;
+        for (int length : lengths) {
+            payloadBytes += length * 4;
         }
-        return value;
+        if (mapped.capacity() != TABLES_HEADER_BYTES + payloadBytes || mapped.getInt(0) != TABLES_MAGIC
+                || mapped.getInt(4) != TABLES_VERSION) {
+            throw new IllegalStateException("Evaluator tables " + file
+                    + " have an unexpected format; regenerate them with java EvaluatorTableGenerator");
+        }
+        for (int t = 0; t < lengths.length; t++) {
+            if (mapped.getInt(8 + t * 4) != lengths[t]) {
+                throw new IllegalStateException("Evaluator tables " + file + " have unexpected table sizes");
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapped.slice(TABLES_HEADER_BYTES, payloadBytes));
+        if ((int) crc.getValue() != mapped.getInt(24)) {
+            throw new IllegalStateException("Evaluator tables " + file + " fail their checksum");
+        }
+        IntBuffer[] tables = new IntBuffer[lengths.length];
+        int offset = TABLES_HEADER_BYTES;
+        for (int t = 0; t < lengths.length; t++) {
+            tables[t] = mapped.slice(offset, lengths[t] * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            offset += lengths[t] * 4;
+        }
+        return tables;
     }
 
-    private static int getFourOfAKindValue(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        String fourRank = rankCounts.entrySet().stream().filter(e -> e.getValue() == 4).map(Map.Entry::getKey).findFirst().orElse("");
-        int fourValue = RANK_VALUES.get(fourRank);
-        int kickerValue = hand.stream().filter(c -> !c.getRank().equals(fourRank)).mapToInt(c -> RANK_VALUES.get(c.getRank())).max().orElse(0);
-        return fourValue * 14 + kickerValue;
+    private static void buildFlushTable(int[] flushTable) {
+        int[] ranks = new int[7];
+        for (int mask = 0; mask < flushTable.length; mask++) {
+            int size = Integer.bitCount(mask);
+            if (size < 5 || size > 7) {
+                continue;
+            }
+            int n = 0;
+            for (int rank = 0; rank < 13; rank++) {
+                if ((mask & (1 << rank)) != 0) {
+                    ranks[n++] = rank + 2;
+                }
+            }
+            flushTable[mask] = bestOfFive(ranks, n, true);
+        }
     }
 
-    private static int getFullHouseValue(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        String threeRank = rankCounts.entrySet().stream().filter(e -> e.getValue() == 3).map(Map.Entry::getKey).findFirst().orElse("");
-        String pairRank = rankCounts.entrySet().stream().filter(e -> e.getValue() == 2).map(Map.Entry::getKey).findFirst().orElse("");
-        int threeValue = RANK_VALUES.get(threeRank);
-        int pairValue = RANK_VALUES.get(pairRank);
-        return threeValue * 14 + pairValue;
+    private static void buildRankTable(int[] rankTable, int[] counts, int rank, int remaining, int cardCount) {
+        if (rank < 0) {
+            if (remaining == 0) {
+                int[] ranks = new int[cardCount];
+                int n = 0;
+                long rankKey = 0;
+                for (int r = 0; r < 13; r++) {
+                    for (int c = 0; c < counts[r]; c++) {
+                        ranks[n++] = r + 2;
+                    }
+                    rankKey += (long) counts[r] << (r * 3);
+                }
+                rankTable[rankIndex(rankKey, cardCount)] = bestOfFive(ranks, n, false);
+            }
+            return;
+        }
+        for (int count = 0; count <= 4 && count <= remaining; count++) {
+            counts[rank] = count;
+            buildRankTable(rankTable, counts, rank - 1, remaining - count, cardCount);
+        }
+        counts[rank] = 0;
     }
 
-    private static int getThreeOfAKindValue(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        String threeRank = rankCounts.entrySet().stream().filter(e -> e.getValue() == 3).map(Map.Entry::getKey).findFirst().orElse("");
-        int threeValue = RANK_VALUES.get(threeRank);
-        List<Integer> kickers = hand.stream().filter(c -> !c.getRank().equals(threeRank)).map(c -> RANK_VALUES.get(c.getRank())).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
-        return threeValue * 14 * 14 + kickers.get(0) * 14 + kickers.get(1);
+    // ranks must be sorted ascending; scores every five card subset and keeps the best.
+    private static int bestOfFive(int[] ranks, int n, boolean flush) {
+        int best = 0;
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                for (int c = b + 1; c < n; c++) {
+                    for (int d = c + 1; d < n; d++) {
+                        for (int e = d + 1; e < n; e++) {
+                            best = Math.max(best, scoreFive(ranks[a], ranks[b], ranks[c], ranks[d], ranks[e], flush));
+                        }
+                    }
+                }
+            }
+        }
+        return best;
     }
 
-    private static int getTwoPairValue(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        List<String> pairs = rankCounts.entrySet().stream().filter(e -> e.getValue() == 2).map(Map.Entry::getKey).sorted(Comparator.comparingInt(RANK_VALUES::get).reversed()).collect(Collectors.toList());
-        int highPairValue = RANK_VALUES.get(pairs.get(0));
-        int lowPairValue = RANK_VALUES.get(pairs.get(1));
-        int kickerValue = hand.stream().filter(c -> !pairs.contains(c.getRank())).mapToInt(c -> RANK_VALUES.get(c.getRank())).max().orElse(0);
-        return highPairValue * 14 * 14 + lowPairValue * 14 + kickerValue;
+    // Scores five rank values (2..14) sorted ascending; flush tells whether they share a suit.
+    private static int scoreFive(int r0, int r1, int r2, int r3, int r4, boolean flush) {
+        boolean straight = r0 + 1 == r1 && r1 + 1 == r2 && r2 + 1 == r3 && r3 + 1 == r4;
+        if (flush && straight) {
+            return r4 == 14 ? 9000000 : 8000000 + r4;
+        }
+        if (r0 == r3 || r1 == r4) {
+            int four = r1;
+            int kicker = r0 == r3 ? r4 : r0;
+            return 7000000 + four * 14 + kicker;
+        }
+        if (r0 == r2 && r3 == r4) {
+            return 6000000 + r0 * 14 + r3;
+        }
+        if (r0 == r1 && r2 == r4) {
+            return 6000000 + r2 * 14 + r0;
+        }
+        int highCards = (((r4 * 14 + r3) * 14 + r2) * 14 + r1) * 14 + r0;
+        if (flush) {
+            return 5000000 + highCards;
+        }
+        if (straight) {
+            return 4000000 + r4;
+        }
+        if (r0 == r2) {
+            return 3000000 + r0 * 14 * 14 + r4 * 14 + r3;
+        }
+        if (r1 == r3) {
+            return 3000000 + r1 * 14 * 14 + r4 * 14 + r0;
+        }
+        if (r2 == r4) {
+            return 3000000 + r2 * 14 * 14 + r1 * 14 + r0;
+        }
+        if (r0 == r1 && r2 == r3) {
+            return 2000000 + r2 * 14 * 14 + r0 * 14 + r4;
+        }
+        if (r0 == r1 && r3 == r4) {
+            return 2000000 + r3 * 14 * 14 + r0 * 14 + r2;
+        }
+        if (r1 == r2 && r3 == r4) {
+            return 2000000 + r3 * 14 * 14 + r1 * 14 + r0;
+        }
+        if (r0 == r1) {
+            return 1000000 + r0 * 14 * 14 * 14 + r4 * 14 * 14 + r3 * 14 + r2;
+        }
+        if (r1 == r2) {
+            return 1000000 + r1 * 14 * 14 * 14 + r4 * 14 * 14 + r3 * 14 + r0;
+        }
+        if (r2 == r3) {
+            return 1000000 + r2 * 14 * 14 * 14 + r4 * 14 * 14 + r1 * 14 + r0;
+        }
+        if (r3 == r4) {
+            return 1000000 + r3 * 14 * 14 * 14 + r2 * 14 * 14 + r1 * 14 + r0;
+        }
+        return highCards;
     }
 
-    private static int getOnePairValue(List<Card> hand) {
-        Map<String, Long> rankCounts = getRankCounts(hand);
-        String pairRank = rankCounts.entrySet().stream().filter(e -> e.getValue() == 2).map(Map.Entry::getKey).findFirst().orElse("");
-        int pairValue = RANK_VALUES.get(pairRank);
-        List<Integer> kickers = hand.stream().filter(c -> !c.getRank().equals(pairRank)).map(c -> RANK_VALUES.get(c.getRank())).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
-        return pairValue * 14 * 14 * 14 + kickers.get(0) * 14 * 14 + kickers.get(1) * 14 + kickers.get(2);
+    // Hands of more than seven cards are rare; score them by trying every seven card subset.
+    private static int evaluateLargeHand(List<Card> hand) {
+        int size = hand.size();
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = hand.get(i).getId();
+        }
+        int best = 0;
+        int[] subset = new int[7];
+        int[] picks = {0, 1, 2, 3, 4, 5, 6};
+        while (true) {
+            for (int i = 0; i < 7; i++) {
+                subset[i] = ids[picks[i]];
+            }
+            best = Math.max(best, evaluate(subset, 0, 7));
+            int i = 6;
+            while (i >= 0 && picks[i] == size - 7 + i) {
+                i--;
+            }
+            if (i < 0) {
+                return best;
+            }
+            picks[i]++;
+            for (int j = i + 1; j < 7; j++) {
+                picks[j] = picks[j - 1] + 1;
+            }
+        }
     }
-}
\ No newline at end of file
+}
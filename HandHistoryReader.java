@@ -0,0 +1,140 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Streams records out of a HandHistoryWriter log through a fixed-size buffer, so files of
+// any size are read in constant memory. next() reuses one HandRecord instance. Reading
+// stops at the first record whose checksum does not match, as after a crash.
+public class HandHistoryReader implements Closeable {
+    private final FileChannel channel;
+    private final HandRecord record = new HandRecord();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final long end;
+    private long filePosition;
+    private boolean endOfFile;
+
+    public HandHistoryReader(Path path) throws IOException {
+        this(path, 0, Long.MAX_VALUE);
+    }
+
+    // Reads the records that start in [start, end). start must be 0 or a record boundary,
+    // such as a value returned by getPosition() or splitPoints().
+    public HandHistoryReader(Path path, long start, long end) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.end = end;
+        buffer.limit(0);
+        if (!fill(4) || buffer.getInt() != HandHistoryWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Not a hand history file: " + path);
+        }
+        if (start > 4) {
+            filePosition = start;
+            buffer.limit(0);
+        }
+    }
+
+    // Offsets that cut the log into up to parts record-aligned segments of similar size.
+    public static long[] splitPoints(Path path, int parts) throws IOException {
+        long size = Files.size(path);
+        long[] points = new long[parts + 1];
+        int found = 1;
+        points[0] = 0;
+        try (HandHistoryReader reader = new HandHistoryReader(path)) {
+            while (found < parts) {
+                long position = reader.skip();
+                if (position < 0) {
+                    break;
+                }
+                if (position >= size * found / parts) {
+                    points[found++] = position;
+                }
+            }
+        }
+        points[found] = Long.MAX_VALUE;
+        return Arrays.copyOf(points, found + 1);
+    }
+
+    // Offset of the next record to be read; pass it back as start to resume later.
+    public long getPosition() {
+        return filePosition - buffer.remaining();
+    }
+
+    // The next hand, or null at the end of the log. The returned record is overwritten by the next call.
+    public HandRecord next() throws IOException {
+        int length = nextLength();
+        if (length < 0) {
+            return null;
+        }
+        buffer.position(buffer.position() + 4);
+        int recordEnd = buffer.position() + length;
+        record.decode(buffer);
+        buffer.position(recordEnd + 4);
+        return record;
+    }
+
+    // Steps over the next record without decoding it; returns the new position or -1 at the end.
+    private long skip() throws IOException {
+        int length = nextLength();
+        if (length < 0) {
+            return -1;
+        }
+        buffer.position(buffer.position() + 8 + length);
+        return getPosition();
+    }
+
+    // Length of the next intact record in range, buffered in full with its checksum, or -1.
+    private int nextLength() throws IOException {
+        if (getPosition() >= end || !fill(4)) {
+            return -1;
+        }
+        int length = buffer.getInt(buffer.position());
+        // A torn length may be huge: check it against the file before growing the buffer for it.
+        if (length <= 0 || length > buffer.capacity() - 8 && getPosition() + 8 + length > channel.size()
+                || !fill(8 + length)) {
+            return -1;
+        }
+        int start = buffer.position();
+        int limit = buffer.limit();
+        buffer.limit(start + 4 + length);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(limit).position(start);
+        if ((int) crc.getValue() != buffer.getInt(start + 4 + length)) {
+            return -1;
+        }
+        return length;
+    }
+
+    // Makes sure at least n unread bytes are buffered; false if the file ends first.
+    private boolean fill(int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        if (buffer.capacity() < n) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Integer.highestOneBit(n) * 2);
+            larger.put(buffer);
+            larger.flip();
+            buffer = larger;
+        }
+        buffer.compact();
+        while (buffer.position() < n && !endOfFile) {
+            int read = channel.read(buffer, filePosition);
+            if (read < 0) {
+                endOfFile = true;
+            } else {
+                filePosition += read;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.*;
+import java.util.*;
+
+// Records every hand played at one table into a HandHistoryWriter. Use one recorder per
+// table; several recorders may share a writer.
+public class HandHistoryRecorder implements GameListener {
+    private final HandHistoryWriter writer;
+    private final HandRecord record = new HandRecord();
+    private PokerGame game;
+
+    public HandHistoryRecorder(HandHistoryWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void onHandStart(PokerGame game) {
+        this.game = game;
+        List<Player> players = game.getPlayers();
+        record.start(0, game.getSmallBlind(), game.getBigBlind(), game.getDealerPosition(), players.size());
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            record.setSeat(seat, player.getName(), player.getChips() + player.getCurrentBet(),
+                    player.getCurrentBet(), player.isActive() ? player.getHandMask() : 0);
+        }
+    }
+
+    // Bets now include more than the blinds, which are worked out from the positions instead.
+    // Actions from before the snapshot are missing from the record.
+    @Override
+    public void onHandResumed(PokerGame game) {
+        this.game = game;
+        List<Player> players = game.getPlayers();
+        record.start(0, game.getSmallBlind(), game.getBigBlind(), game.getDealerPosition(), players.size());
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            int stack = player.getChips() + player.getCurrentBet();
+            int blind = 0;
+            if (seat == game.getSmallBlindPosition()) {
+                blind += Math.min(game.getSmallBlind(), stack);
+            }
+            if (seat == game.getBigBlindPosition()) {
+                blind += Math.min(game.getBigBlind(), stack - blind);
+            }
+            record.setSeat(seat, player.getName(), stack, blind,
+                    player.getHand().size() == 2 ? player.getHandMask() : 0);
+        }
+        onCommunityCards(game.getCommunityCards());
+    }
+
+    @Override
+    public void onCommunityCards(List<Card> communityCards) {
+        for (int i = record.getBoardSize(); i < communityCards.size(); i++) {
+            record.addBoardCard(communityCards.get(i).getId());
+        }
+    }
+
+    @Override
+    public void onAction(Player player, Action action) {
+        int boardSize = game.getCommunityCards().size();
+        int street = boardSize == 0 ? 0 : boardSize - 2;
+        record.addAction(street, game.getPlayers().indexOf(player), action.getType(), action.getAmount(),
+                player.getCurrentBet());
+    }
+
+    @Override
+    public void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+        long winnerSeats = 0;
+        for (Player winner : winners) {
+            winnerSeats |= 1L << game.getPlayers().indexOf(winner);
+        }
+        record.addPot(amount, winnerSeats);
+    }
+
+    @Override
+    public void onHandEnd(PokerGame game) {
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            record.setResult(seat, player.getCurrentBet(), player.getChips());
+        }
+        try {
+            writer.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record hand", e);
+        }
+    }
+}
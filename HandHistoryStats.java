@@ -0,0 +1,172 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Aggregates PlayerStats over hand history logs. Logs are cut into record-aligned segments
+// (large files into several), segments are read in parallel on a ForkJoinPool, each into
+// its own accumulators, and the results are merged pairwise. Each log's read position is
+// kept, so refresh() only reads hands appended since the previous call.
+public class HandHistoryStats {
+    private static final long SEGMENT_SIZE = 64L << 20;
+
+    private final ForkJoinPool pool;
+    private final Map<Path, Long> positions = new LinkedHashMap<>();
+    private final Map<String, PlayerStats> totals = new HashMap<>();
+    private long hands;
+
+    public HandHistoryStats(List<Path> files) {
+        this(files, ForkJoinPool.commonPool());
+    }
+
+    public HandHistoryStats(List<Path> files, ForkJoinPool pool) {
+        this.pool = pool;
+        for (Path file : files) {
+            positions.put(file, 0L);
+        }
+    }
+
+    public void addFile(Path file) {
+        positions.putIfAbsent(file, 0L);
+    }
+
+    // Reads everything appended to the logs since the last refresh and folds it into the totals.
+    public void refresh() throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        for (Map.Entry<Path, Long> entry : positions.entrySet()) {
+            Path file = entry.getKey();
+            long start = entry.getValue();
+            long unread = Files.size(file) - start;
+            int parts = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, unread / SEGMENT_SIZE));
+            if (start == 0 && parts > 1) {
+                long[] points = HandHistoryReader.splitPoints(file, parts);
+                for (int i = 0; i + 1 < points.length; i++) {
+                    segments.add(new Segment(file, points[i], points[i + 1]));
+                }
+            } else {
+                segments.add(new Segment(file, start, Long.MAX_VALUE));
+            }
+        }
+        Result result = pool.invoke(new SegmentTask(segments, 0, segments.size()));
+        if (result.error != null) {
+            throw result.error;
+        }
+        hands += result.hands;
+        for (PlayerStats stats : result.players.values()) {
+            totals.computeIfAbsent(stats.getName(), PlayerStats::new).merge(stats);
+        }
+        for (Map.Entry<Path, Long> end : result.ends.entrySet()) {
+            positions.merge(end.getKey(), end.getValue(), Math::max);
+        }
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public PlayerStats getPlayer(String name) {
+        return totals.get(name);
+    }
+
+    public Collection<PlayerStats> getPlayers() {
+        return Collections.unmodifiableCollection(totals.values());
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long start;
+        final long end;
+
+        Segment(Path file, long start, long end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Result {
+        final Map<String, PlayerStats> players = new HashMap<>();
+        final Map<Path, Long> ends = new HashMap<>();
+        long hands;
+        IOException error;
+
+        Result merge(Result other) {
+            for (PlayerStats stats : other.players.values()) {
+                PlayerStats mine = players.putIfAbsent(stats.getName(), stats);
+                if (mine != null) {
+                    mine.merge(stats);
+                }
+            }
+            for (Map.Entry<Path, Long> end : other.ends.entrySet()) {
+                ends.merge(end.getKey(), end.getValue(), Math::max);
+            }
+            hands += other.hands;
+            if (error == null) {
+                error = other.error;
+            }
+            return this;
+        }
+    }
+
+    private static final class SegmentTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Segment> segments;
+        private final int from;
+        private final int to;
+
+        SegmentTask(List<Segment> segments, int from, int to) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from == 0) {
+                return new Result();
+            }
+            if (to - from == 1) {
+                return read(segments.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            SegmentTask left = new SegmentTask(segments, from, middle);
+            left.fork();
+            Result right = new SegmentTask(segments, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private static Result read(Segment segment) {
+            Result result = new Result();
+            try (HandHistoryReader reader = new HandHistoryReader(segment.file, segment.start, segment.end)) {
+                HandRecord record;
+                while ((record = reader.next()) != null) {
+                    add(result, record);
+                }
+                result.ends.put(segment.file, reader.getPosition());
+            } catch (IOException e) {
+                result.error = e;
+            }
+            return result;
+        }
+
+        private static void add(Result result, HandRecord record) {
+            long folded = record.getFoldedSeats();
+            int inAtEnd = 0;
+            for (int seat = 0; seat < record.getSeatCount(); seat++) {
+                if (record.getHoleCards(seat) != 0 && (folded & (1L << seat)) == 0) {
+                    inAtEnd++;
+                }
+            }
+            boolean showdown = inAtEnd > 1;
+            for (int seat = 0; seat < record.getSeatCount(); seat++) {
+                if (record.getHoleCards(seat) == 0) {
+                    continue;
+                }
+                result.players.computeIfAbsent(record.getName(seat), PlayerStats::new)
+                        .add(record, seat, showdown, folded);
+            }
+            result.hands++;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+// Append-only binary hand history. Records are copied into a memory-mapped region of the
+// file and forced to disk every syncEvery hands, not on every write. The file starts with
+// MAGIC; each record is an int length, HandRecord's encoding and an int CRC32 of both. A
+// zero length or a bad checksum (mapped space unwritten, or only partly forced, before a
+// crash) marks the end of the log, and reopening the log cuts it off there.
+public class HandHistoryWriter implements Closeable {
+    static final int MAGIC = 0x50484832;
+    private static final long REGION_SIZE = 16L << 20;
+
+    private final FileChannel channel;
+    private final int syncEvery;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private long nextHandNumber;
+    private int unsynced;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+
+    public HandHistoryWriter(Path path, int syncEvery) throws IOException {
+        this.syncEvery = syncEvery;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(0, MAGIC);
+            channel.write(header, 0);
+            position = 4;
+        } else {
+            findEnd();
+        }
+    }
+
+    // Picks up after the last intact record of an existing log, dropping anything after it.
+    private void findEnd() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        if (channel.read(header, 0) != 4 || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a hand history file");
+        }
+        long size = channel.size();
+        position = 4;
+        while (position + 8 <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || position + 8 + length > size) {
+                break;
+            }
+            if (scratch.capacity() < length + 8) {
+                scratch = ByteBuffer.allocate(Integer.highestOneBit(length + 8) * 2);
+            }
+            scratch.clear().limit(length + 8);
+            while (scratch.hasRemaining()) {
+                if (channel.read(scratch, position + scratch.position()) < 0) {
+                    break;
+                }
+            }
+            if (scratch.hasRemaining() || checksum(length + 4) != scratch.getInt(length + 4)) {
+                break;
+            }
+            position += 8 + length;
+            nextHandNumber++;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+    }
+
+    // CRC32 of the first length bytes of scratch.
+    private int checksum(int length) {
+        crc.reset();
+        crc.update(scratch.array(), 0, length);
+        return (int) crc.getValue();
+    }
+
+    // Assigns the record the next hand number in this log and appends it.
+    public synchronized void append(HandRecord record) throws IOException {
+        record.setHandNumber(nextHandNumber++);
+        int length = record.encodedSize();
+        if (scratch.capacity() < length + 8) {
+            scratch = ByteBuffer.allocate(Integer.highestOneBit(length + 8) * 2);
+        }
+        scratch.clear();
+        scratch.putInt(length);
+        record.encode(scratch);
+        scratch.putInt(checksum(length + 4));
+        scratch.flip();
+
+        if (region == null || position + scratch.remaining() > regionStart + region.capacity()) {
+            // Records still unsynced in the old region would never be forced once it is dropped.
+            sync();
+            regionStart = position;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                    Math.max(REGION_SIZE, scratch.remaining()));
+        }
+        region.put((int) (position - regionStart), scratch, 0, scratch.remaining());
+        position += scratch.remaining();
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    public synchronized void sync() {
+        if (region != null && unsynced > 0) {
+            region.force();
+        }
+        unsynced = 0;
+    }
+
+    public synchronized long getHandCount() {
+        return nextHandNumber;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        region = null;
+        // Mapping grows the file by a whole region; cut it back to the data actually written.
+        channel.truncate(position);
+        channel.force(true);
+        channel.close();
+    }
+}
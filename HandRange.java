@@ -0,0 +1,267 @@
+import java.util.*;
+
+// A weighted range of two-card starting hands: one weight in [0, 1] for each of the 1326
+// hole card combos. Combo c of cards a < b has index b * (b - 1) / 2 + a.
+//
+// parse() reads the usual notation, comma separated, each part optionally weighted as ":0.5":
+//   AA, AKs, AKo, AK        a pair, suited, offsuit or any two of those ranks
+//   TT+, ATs+, KTo+         pairs from TT up, kickers from T up to one below the high card
+//   AA-TT, AKs-ATs          pairs or kickers between the two given
+//   AhKh                    one exact combo (suits h, d, c, s)
+//   top 15%, 15%            the strongest hand classes covering that share of all combos,
+//                           by heads-up equity against a random hand
+public class HandRange {
+    public static final int COMBOS = 1326;
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "hdcs";
+    private static final int[] FIRST_CARD = new int[COMBOS];
+    private static final int[] SECOND_CARD = new int[COMBOS];
+
+    static {
+        for (int b = 1; b < 52; b++) {
+            for (int a = 0; a < b; a++) {
+                FIRST_CARD[combo(a, b)] = a;
+                SECOND_CARD[combo(a, b)] = b;
+            }
+        }
+    }
+
+    private static final class Ranking {
+        // Hand classes, strongest first.
+        static final int[] CLASSES = rankClasses();
+    }
+
+    private final float[] weights = new float[COMBOS];
+
+    public static int combo(int card1, int card2) {
+        int low = Math.min(card1, card2);
+        int high = Math.max(card1, card2);
+        if (low == high) {
+            throw new IllegalArgumentException("A combo needs two different cards");
+        }
+        return high * (high - 1) / 2 + low;
+    }
+
+    public static int firstCard(int combo) {
+        return FIRST_CARD[combo];
+    }
+
+    public static int secondCard(int combo) {
+        return SECOND_CARD[combo];
+    }
+
+    public static long comboMask(int combo) {
+        return (1L << FIRST_CARD[combo]) | (1L << SECOND_CARD[combo]);
+    }
+
+    public static HandRange parse(String text) {
+        HandRange range = new HandRange();
+        for (String part : text.split(",")) {
+            String token = part.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            float weight = 1;
+            int colon = token.indexOf(':');
+            if (colon >= 0) {
+                weight = Float.parseFloat(token.substring(colon + 1).trim());
+                token = token.substring(0, colon).trim();
+                if (!(weight >= 0 && weight <= 1)) {
+                    throw new IllegalArgumentException("Weight must be between 0 and 1 in " + part.trim());
+                }
+            }
+            range.add(token, weight);
+        }
+        return range;
+    }
+
+    public float getWeight(int combo) {
+        return weights[combo];
+    }
+
+    public void setWeight(int combo, float weight) {
+        weights[combo] = weight;
+    }
+
+    // Sum of the weights: the number of combos the range stands for.
+    public double size() {
+        double total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        return total;
+    }
+
+    // A copy without the combos that use any of the given cards.
+    public HandRange without(long deadCards) {
+        HandRange copy = new HandRange();
+        for (int c = 0; c < COMBOS; c++) {
+            if ((comboMask(c) & deadCards) == 0) {
+                copy.weights[c] = weights[c];
+            }
+        }
+        return copy;
+    }
+
+    private void add(String token, float weight) {
+        String upper = token.toUpperCase();
+        if (upper.endsWith("%")) {
+            String number = upper.startsWith("TOP") ? upper.substring(3, upper.length() - 1) : upper.substring(0, upper.length() - 1);
+            addTop(Double.parseDouble(number.trim()) / 100, weight);
+            return;
+        }
+        if (token.length() == 4 && SUIT_CHARS.indexOf(Character.toLowerCase(token.charAt(1))) >= 0) {
+            weights[combo(card(token, 0), card(token, 2))] = weight;
+            return;
+        }
+        int dash = upper.indexOf('-');
+        if (dash >= 0) {
+            String from = upper.substring(0, dash).trim();
+            String to = upper.substring(dash + 1).trim();
+            int high = rank(from, 0);
+            int kind = kind(from);
+            if (kind != kind(to) || (high == rank(from, 1)) != (rank(to, 0) == rank(to, 1))) {
+                throw new IllegalArgumentException("Mismatched range " + token);
+            }
+            if (high == rank(from, 1)) {
+                for (int r = Math.min(high, rank(to, 0)); r <= Math.max(high, rank(to, 0)); r++) {
+                    addClass(r, r, kind, weight);
+                }
+            } else {
+                if (rank(to, 0) != high) {
+                    throw new IllegalArgumentException("A kicker range keeps its high card: " + token);
+                }
+                int low = rank(from, 1);
+                int other = rank(to, 1);
+                for (int r = Math.min(low, other); r <= Math.max(low, other); r++) {
+                    addClass(high, r, kind, weight);
+                }
+            }
+            return;
+        }
+        boolean plus = upper.endsWith("+");
+        String hand = plus ? upper.substring(0, upper.length() - 1) : upper;
+        int high = rank(hand, 0);
+        int low = rank(hand, 1);
+        if (low > high) {
+            int swap = low;
+            low = high;
+            high = swap;
+        }
+        int kind = kind(hand);
+        if (!plus) {
+            addClass(high, low, kind, weight);
+        } else if (high == low) {
+            for (int r = high; r < 13; r++) {
+                addClass(r, r, kind, weight);
+            }
+        } else {
+            for (int r = low; r < high; r++) {
+                addClass(high, r, kind, weight);
+            }
+        }
+    }
+
+    // 0 any, 1 suited, 2 offsuit.
+    private static int kind(String hand) {
+        if (hand.length() == 3) {
+            switch (hand.charAt(2)) {
+                case 'S':
+                    return 1;
+                case 'O':
+                    return 2;
+                default:
+                    throw new IllegalArgumentException("Expected s or o after " + hand.substring(0, 2));
+            }
+        }
+        if (hand.length() != 2) {
+            throw new IllegalArgumentException("Cannot read hand " + hand);
+        }
+        return 0;
+    }
+
+    private static int rank(String hand, int index) {
+        int rank = index < hand.length() ? RANK_CHARS.indexOf(Character.toUpperCase(hand.charAt(index))) : -1;
+        if (rank < 0) {
+            throw new IllegalArgumentException("Cannot read a rank in " + hand);
+        }
+        return rank;
+    }
+
+    private static int card(String token, int index) {
+        int suit = SUIT_CHARS.indexOf(Character.toLowerCase(token.charAt(index + 1)));
+        if (suit < 0) {
+            throw new IllegalArgumentException("Cannot read a suit in " + token);
+        }
+        return rank(token, index) * 4 + suit;
+    }
+
+    private void addClass(int high, int low, int kind, float weight) {
+        for (int s1 = 0; s1 < 4; s1++) {
+            for (int s2 = 0; s2 < 4; s2++) {
+                int a = high * 4 + s1;
+                int b = low * 4 + s2;
+                if (a == b || (high == low && s2 <= s1)) {
+                    continue;
+                }
+                if ((kind == 1 && s1 != s2) || (kind == 2 && s1 == s2)) {
+                    continue;
+                }
+                weights[combo(a, b)] = weight;
+            }
+        }
+    }
+
+    private void addTop(double share, float weight) {
+        double wanted = share * COMBOS;
+        int covered = 0;
+        for (int handClass : Ranking.CLASSES) {
+            if (covered >= wanted) {
+                return;
+            }
+            int row = handClass / 13;
+            int column = handClass % 13;
+            if (row == column) {
+                addClass(row, row, 0, weight);
+                covered += 6;
+            } else {
+                addClass(Math.max(row, column), Math.min(row, column), row > column ? 1 : 2, weight);
+                covered += row > column ? 4 : 12;
+            }
+        }
+    }
+
+    // Orders the 169 classes by all-in equity against a random hand, each opposing class
+    // weighted by its number of combos.
+    private static int[] rankClasses() {
+        double[] strength = new double[PreflopEquity.CLASSES];
+        for (int a = 0; a < PreflopEquity.CLASSES; a++) {
+            double total = 0;
+            for (int b = 0; b < PreflopEquity.CLASSES; b++) {
+                total += classCombos(b) * PreflopEquity.headsUp(a, b);
+            }
+            strength[a] = total / COMBOS;
+        }
+        Integer[] order = new Integer[PreflopEquity.CLASSES];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(strength[y], strength[x]));
+        int[] classes = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            classes[i] = order[i];
+        }
+        return classes;
+    }
+
+    private static int classCombos(int handClass) {
+        int row = handClass / 13;
+        int column = handClass % 13;
+        return row == column ? 6 : row > column ? 4 : 12;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f combos", size());
+    }
+}
@@ -0,0 +1,287 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// One played hand as stored in the binary hand history.
+//
+// Layout (big-endian), between the int length and the checksum written by HandHistoryWriter:
+//   long handNumber, int smallBlind, int bigBlind, byte dealer, byte seats
+//   per seat:   short nameLength, name (UTF-8), int startingStack, int blindPosted,
+//               long holeCards, int contribution, int finalStack
+//   byte boardCards, board card ids in deal order
+//   short actions, per action: byte street, byte seat, byte type, int amount, int totalBet
+//   byte pots, per pot: int amount, long winnerSeats
+public class HandRecord {
+    // values() copies the array on every call.
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+
+    private long handNumber;
+    private int smallBlind;
+    private int bigBlind;
+    private int dealer;
+    private String[] names;
+    private int[] startingStacks;
+    private int[] blindsPosted;
+    private long[] holeCards;
+    private int[] contributions;
+    private int[] finalStacks;
+    private byte[] board = new byte[5];
+    private int boardSize;
+    private byte[] actionStreets = new byte[16];
+    private byte[] actionSeats = new byte[16];
+    private byte[] actionTypes = new byte[16];
+    private int[] actionAmounts = new int[16];
+    private int[] actionTotals = new int[16];
+    private int actionCount;
+    private int[] potAmounts = new int[4];
+    private long[] potWinners = new long[4];
+    private int potCount;
+
+    void start(long handNumber, int smallBlind, int bigBlind, int dealer, int seats) {
+        this.handNumber = handNumber;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.dealer = dealer;
+        if (names == null || names.length != seats) {
+            names = new String[seats];
+            startingStacks = new int[seats];
+            blindsPosted = new int[seats];
+            holeCards = new long[seats];
+            contributions = new int[seats];
+            finalStacks = new int[seats];
+        }
+        boardSize = 0;
+        actionCount = 0;
+        potCount = 0;
+    }
+
+    void setHandNumber(long handNumber) {
+        this.handNumber = handNumber;
+    }
+
+    void setSeat(int seat, String name, int startingStack, int blindPosted, long hole) {
+        names[seat] = name;
+        startingStacks[seat] = startingStack;
+        blindsPosted[seat] = blindPosted;
+        holeCards[seat] = hole;
+    }
+
+    void setResult(int seat, int contribution, int finalStack) {
+        contributions[seat] = contribution;
+        finalStacks[seat] = finalStack;
+    }
+
+    void addBoardCard(int id) {
+        board[boardSize++] = (byte) id;
+    }
+
+    void addAction(int street, int seat, ActionType type, int amount, int totalBet) {
+        if (actionCount == actionSeats.length) {
+            int size = actionCount * 2;
+            actionStreets = Arrays.copyOf(actionStreets, size);
+            actionSeats = Arrays.copyOf(actionSeats, size);
+            actionTypes = Arrays.copyOf(actionTypes, size);
+            actionAmounts = Arrays.copyOf(actionAmounts, size);
+            actionTotals = Arrays.copyOf(actionTotals, size);
+        }
+        actionStreets[actionCount] = (byte) street;
+        actionSeats[actionCount] = (byte) seat;
+        actionTypes[actionCount] = (byte) type.ordinal();
+        actionAmounts[actionCount] = amount;
+        actionTotals[actionCount] = totalBet;
+        actionCount++;
+    }
+
+    void addPot(int amount, long winnerSeats) {
+        if (potCount == potAmounts.length) {
+            potAmounts = Arrays.copyOf(potAmounts, potCount * 2);
+            potWinners = Arrays.copyOf(potWinners, potCount * 2);
+        }
+        potAmounts[potCount] = amount;
+        potWinners[potCount] = winnerSeats;
+        potCount++;
+    }
+
+    public int encodedSize() {
+        int size = 8 + 4 + 4 + 1 + 1 + 1 + boardSize + 2 + actionCount * 11 + 1 + potCount * 12;
+        for (String name : names) {
+            size += 2 + name.getBytes(StandardCharsets.UTF_8).length + 4 + 4 + 8 + 4 + 4;
+        }
+        return size;
+    }
+
+    public void encode(ByteBuffer out) {
+        out.putLong(handNumber);
+        out.putInt(smallBlind);
+        out.putInt(bigBlind);
+        out.put((byte) dealer);
+        out.put((byte) names.length);
+        for (int seat = 0; seat < names.length; seat++) {
+            byte[] name = names[seat].getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.putInt(startingStacks[seat]);
+            out.putInt(blindsPosted[seat]);
+            out.putLong(holeCards[seat]);
+            out.putInt(contributions[seat]);
+            out.putInt(finalStacks[seat]);
+        }
+        out.put((byte) boardSize);
+        out.put(board, 0, boardSize);
+        out.putShort((short) actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            out.put(actionStreets[i]);
+            out.put(actionSeats[i]);
+            out.put(actionTypes[i]);
+            out.putInt(actionAmounts[i]);
+            out.putInt(actionTotals[i]);
+        }
+        out.put((byte) potCount);
+        for (int i = 0; i < potCount; i++) {
+            out.putInt(potAmounts[i]);
+            out.putLong(potWinners[i]);
+        }
+    }
+
+    // Decodes into this record so a reader can reuse one instance for a whole file.
+    public HandRecord decode(ByteBuffer in) {
+        long number = in.getLong();
+        int small = in.getInt();
+        int big = in.getInt();
+        int button = in.get();
+        int seats = in.get();
+        start(number, small, big, button, seats);
+        for (int seat = 0; seat < seats; seat++) {
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            setSeat(seat, new String(name, StandardCharsets.UTF_8), in.getInt(), in.getInt(), in.getLong());
+            setResult(seat, in.getInt(), in.getInt());
+        }
+        int cards = in.get();
+        for (int i = 0; i < cards; i++) {
+            addBoardCard(in.get());
+        }
+        int actions = in.getShort();
+        for (int i = 0; i < actions; i++) {
+            int street = in.get();
+            int seat = in.get();
+            ActionType type = ACTION_TYPES[in.get()];
+            addAction(street, seat, type, in.getInt(), in.getInt());
+        }
+        int pots = in.get();
+        for (int i = 0; i < pots; i++) {
+            addPot(in.getInt(), in.getLong());
+        }
+        return this;
+    }
+
+    public long getHandNumber() {
+        return handNumber;
+    }
+
+    public int getSmallBlind() {
+        return smallBlind;
+    }
+
+    public int getBigBlind() {
+        return bigBlind;
+    }
+
+    public int getDealer() {
+        return dealer;
+    }
+
+    public int getSeatCount() {
+        return names.length;
+    }
+
+    public String getName(int seat) {
+        return names[seat];
+    }
+
+    public int getStartingStack(int seat) {
+        return startingStacks[seat];
+    }
+
+    public int getBlindPosted(int seat) {
+        return blindsPosted[seat];
+    }
+
+    // 0 for a seat that sat the hand out.
+    public long getHoleCards(int seat) {
+        return holeCards[seat];
+    }
+
+    public int getFinalStack(int seat) {
+        return finalStacks[seat];
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getBoardCard(int index) {
+        return board[index];
+    }
+
+    public long getBoardMask() {
+        long mask = 0;
+        for (int i = 0; i < boardSize; i++) {
+            mask |= 1L << board[i];
+        }
+        return mask;
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    // 0 pre-flop, 1 flop, 2 turn, 3 river.
+    public int getActionStreet(int index) {
+        return actionStreets[index];
+    }
+
+    public int getActionSeat(int index) {
+        return actionSeats[index];
+    }
+
+    public ActionType getActionType(int index) {
+        return ACTION_TYPES[actionTypes[index]];
+    }
+
+    public int getActionAmount(int index) {
+        return actionAmounts[index];
+    }
+
+    // The acting seat's total chips committed to the hand after the action.
+    public int getActionTotalBet(int index) {
+        return actionTotals[index];
+    }
+
+    public int getPotCount() {
+        return potCount;
+    }
+
+    public int getPotAmount(int index) {
+        return potAmounts[index];
+    }
+
+    public long getPotWinners(int index) {
+        return potWinners[index];
+    }
+
+    // Chips the seat put into the pot over the whole hand, blinds included.
+    public int getContribution(int seat) {
+        return contributions[seat];
+    }
+
+    public long getFoldedSeats() {
+        long folded = 0;
+        for (int i = 0; i < actionCount; i++) {
+            if (actionTypes[i] == ActionType.FOLD.ordinal()) {
+                folded |= 1L << actionSeats[i];
+            }
+        }
+        return folded;
+    }
+}
@@ -0,0 +1,163 @@
+// Incrementally tracked strength of one player's cards (hole cards plus the board so far).
+// Each added card updates the packed rank counts and suit masks, and the score, made hand
+// and draw outs are recomputed right away so every getter is a field read.
+public class HandState {
+    // STRAIGHT_COMPLETIONS[rankMask]: ranks that would complete five in a row.
+    private static final short[] STRAIGHT_COMPLETIONS = createStraightCompletions();
+
+    private long cards;
+    private long rankKey;
+    private long suitMasks;
+    private int count;
+    private int score;
+    private int category;
+    private long outs;
+    private int flushOuts;
+    private int straightOuts;
+
+    public void reset() {
+        cards = 0;
+        rankKey = 0;
+        suitMasks = 0;
+        count = 0;
+        score = 0;
+        category = 0;
+        outs = 0;
+        flushOuts = 0;
+        straightOuts = 0;
+    }
+
+    public void addCard(Card card) {
+        addCard(card.getId());
+    }
+
+    public void addCard(int id) {
+        if ((cards & (1L << id)) != 0) {
+            throw new IllegalArgumentException("Card already added: " + Card.of(id));
+        }
+        if (count == 7) {
+            throw new IllegalStateException("A hand holds at most seven cards");
+        }
+        cards |= 1L << id;
+        rankKey += 1L << ((id >>> 2) * 3);
+        suitMasks |= 1L << ((id & 3) * 16 + (id >>> 2));
+        count++;
+        update();
+    }
+
+    private void update() {
+        if (count >= 5) {
+            score = HandEvaluator.lookup(rankKey, suitMasks, count);
+            category = score / 1000000;
+        } else {
+            score = 0;
+            category = partialCategory();
+        }
+
+        outs = 0;
+        flushOuts = 0;
+        straightOuts = 0;
+        if (count == 7) {
+            return;
+        }
+        int rankMask = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int suited = (int) (suitMasks >>> (suit * 16)) & 0x1FFF;
+            rankMask |= suited;
+            if (Integer.bitCount(suited) == 4 && category < 5) {
+                long flushCards = 0;
+                for (int rank = 0; rank < 13; rank++) {
+                    flushCards |= 1L << (rank * 4 + suit);
+                }
+                flushCards &= ~cards;
+                flushOuts = Long.bitCount(flushCards);
+                outs |= flushCards;
+            }
+        }
+        if (category < 4) {
+            int completions = STRAIGHT_COMPLETIONS[rankMask];
+            long straightCards = 0;
+            for (int rank = 0; rank < 13; rank++) {
+                if ((completions & (1 << rank)) != 0) {
+                    straightCards |= 0xFL << (rank * 4);
+                }
+            }
+            straightOuts = Long.bitCount(straightCards);
+            outs |= straightCards;
+        }
+    }
+
+    // Made hand from fewer than five cards: only pairs, trips and quads are possible.
+    private int partialCategory() {
+        int pairs = 0;
+        int trips = 0;
+        for (int rank = 0; rank < 13; rank++) {
+            int n = (int) (rankKey >>> (rank * 3)) & 7;
+            if (n == 4) {
+                return 7;
+            }
+            if (n == 3) {
+                trips++;
+            } else if (n == 2) {
+                pairs++;
+            }
+        }
+        if (trips > 0) {
+            return 3;
+        }
+        return Math.min(pairs, 2);
+    }
+
+    private static short[] createStraightCompletions() {
+        short[] completions = new short[1 << 13];
+        for (int mask = 0; mask < completions.length; mask++) {
+            if (hasStraight(mask)) {
+                continue;
+            }
+            for (int rank = 0; rank < 13; rank++) {
+                if ((mask & (1 << rank)) == 0 && hasStraight(mask | (1 << rank))) {
+                    completions[mask] |= (short) (1 << rank);
+                }
+            }
+        }
+        return completions;
+    }
+
+    private static boolean hasStraight(int rankMask) {
+        return (rankMask & (rankMask >>> 1) & (rankMask >>> 2) & (rankMask >>> 3) & (rankMask >>> 4)) != 0;
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public int getCardCount() {
+        return count;
+    }
+
+    // Same value as HandEvaluator.evaluateHand on these cards; 0 until five cards are known.
+    public int getScore() {
+        return score;
+    }
+
+    public String getHandType() {
+        return HandEvaluator.getHandType(category * 1000000);
+    }
+
+    // Unseen cards that complete a flush or a straight this hand does not already have.
+    public long getOuts() {
+        return outs;
+    }
+
+    public int getOutCount() {
+        return Long.bitCount(outs);
+    }
+
+    public int getFlushOuts() {
+        return flushOuts;
+    }
+
+    public int getStraightOuts() {
+        return straightOuts;
+    }
+}
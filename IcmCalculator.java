@@ -0,0 +1,183 @@
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+// Tournament prize equity of chip stacks under the Independent Chip Model (Malmuth-Harville):
+// a player finishes first with probability stack / total chips, and each later place is
+// decided the same way among the players left. Up to MAX_EXACT_PLAYERS players the model is
+// solved exactly by dynamic programming over the set of players already placed, each set
+// reached once however its players were ordered; larger fields are sampled.
+//
+// Keeps scratch state between calls: use one instance per thread.
+public class IcmCalculator {
+    static final int MAX_EXACT_PLAYERS = 16;
+
+    private final int[] payouts;
+    private final RandomGenerator random;
+    private final int samples;
+    // reach[placed]: probability that exactly the players in placed took the first places.
+    private double[] reach = new double[0];
+
+    // payouts[k] is the prize for place k + 1 among the players still in; 200000 samples
+    // for fields too large to solve exactly.
+    public IcmCalculator(int[] payouts) {
+        this(payouts, new SplittableRandom(), 200000);
+    }
+
+    public IcmCalculator(int[] payouts, RandomGenerator random, int samples) {
+        for (int payout : payouts) {
+            if (payout < 0) {
+                throw new IllegalArgumentException("Payouts cannot be negative");
+            }
+        }
+        this.payouts = payouts.clone();
+        this.random = random;
+        this.samples = samples;
+    }
+
+    // Expected prize of each stack. Players with no chips have busted and take the places
+    // after everyone with chips, sharing them equally.
+    public double[] equity(int[] stacks) {
+        return equity(stacks, payouts);
+    }
+
+    // Splits the prizes now instead of playing on: each player gets their ICM equity of the
+    // prizes with reserve taken off first place, rounded to whole units so the shares add up
+    // exactly. The reserve is left for the players to play for.
+    public int[] deal(int[] stacks, int reserve) {
+        int paid = Math.min(payouts.length, stacks.length);
+        if (paid == 0) {
+            return new int[stacks.length];
+        }
+        if (reserve < 0 || reserve > payouts[0]) {
+            throw new IllegalArgumentException("Reserve must be between 0 and the first prize, got " + reserve);
+        }
+        int[] adjusted = Arrays.copyOf(payouts, paid);
+        adjusted[0] -= reserve;
+        long total = 0;
+        for (int payout : adjusted) {
+            total += payout;
+        }
+        double[] equity = equity(stacks, adjusted);
+        // Largest remainder: round down, then hand the leftover units to the biggest fractions.
+        int[] shares = new int[stacks.length];
+        Integer[] byFraction = new Integer[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            shares[i] = (int) Math.floor(equity[i]);
+            total -= shares[i];
+            byFraction[i] = i;
+        }
+        Arrays.sort(byFraction, (a, b) -> Double.compare(equity[b] - shares[b], equity[a] - shares[a]));
+        for (int i = 0; i < total; i++) {
+            shares[byFraction[i % stacks.length]]++;
+        }
+        return shares;
+    }
+
+    public int getPayout(int place) {
+        return place < payouts.length ? payouts[place] : 0;
+    }
+
+    private double[] equity(int[] stacks, int[] prizes) {
+        int n = stacks.length;
+        int[] alive = new int[n];
+        int players = 0;
+        for (int i = 0; i < n; i++) {
+            if (stacks[i] < 0) {
+                throw new IllegalArgumentException("Stacks cannot be negative");
+            }
+            if (stacks[i] > 0) {
+                alive[players++] = i;
+            }
+        }
+        int[] aliveStacks = new int[players];
+        for (int p = 0; p < players; p++) {
+            aliveStacks[p] = stacks[alive[p]];
+        }
+        double[] aliveEquity = players <= MAX_EXACT_PLAYERS ? exactEquity(aliveStacks, prizes)
+                : sampledEquity(aliveStacks, prizes);
+        double[] equity = new double[n];
+        for (int p = 0; p < players; p++) {
+            equity[alive[p]] = aliveEquity[p];
+        }
+        if (players < n) {
+            double busted = 0;
+            for (int place = players; place < n; place++) {
+                busted += place < prizes.length ? prizes[place] : 0;
+            }
+            busted /= n - players;
+            for (int i = 0; i < n; i++) {
+                if (stacks[i] == 0) {
+                    equity[i] = busted;
+                }
+            }
+        }
+        return equity;
+    }
+
+    // Masks are visited in increasing order, so every set is complete before it is extended.
+    double[] exactEquity(int[] stacks, int[] prizes) {
+        int n = stacks.length;
+        int places = Math.min(prizes.length, n);
+        double[] equity = new double[n];
+        if (places == 0) {
+            return equity;
+        }
+        if (reach.length < 1 << n) {
+            reach = new double[1 << n];
+        }
+        Arrays.fill(reach, 0, 1 << n, 0);
+        reach[0] = 1;
+        int everyone = (1 << n) - 1;
+        for (int placed = 0; placed < 1 << n; placed++) {
+            double p = reach[placed];
+            if (p == 0) {
+                continue;
+            }
+            int place = Integer.bitCount(placed);
+            double left = 0;
+            for (int free = everyone & ~placed; free != 0; free &= free - 1) {
+                left += stacks[Integer.numberOfTrailingZeros(free)];
+            }
+            double perChip = p / left;
+            boolean extend = place + 1 < places;
+            for (int free = everyone & ~placed; free != 0; free &= free - 1) {
+                int i = Integer.numberOfTrailingZeros(free);
+                double q = perChip * stacks[i];
+                equity[i] += q * prizes[place];
+                if (extend) {
+                    reach[placed | (1 << i)] += q;
+                }
+            }
+        }
+        return equity;
+    }
+
+    // Each sample draws a finishing order by racing exponential clocks with rates equal to
+    // the stacks, which picks each next place with probability proportional to stack.
+    double[] sampledEquity(int[] stacks, int[] prizes) {
+        int n = stacks.length;
+        int places = Math.min(prizes.length, n);
+        double[] equity = new double[n];
+        double[] finish = new double[n];
+        for (int s = 0; s < samples; s++) {
+            for (int i = 0; i < n; i++) {
+                finish[i] = -Math.log(1 - random.nextDouble()) / stacks[i];
+            }
+            // Only the paid places matter: pick them one by one instead of sorting.
+            for (int place = 0; place < places; place++) {
+                int first = -1;
+                for (int i = 0; i < n; i++) {
+                    if (finish[i] >= 0 && (first < 0 || finish[i] < finish[first])) {
+                        first = i;
+                    }
+                }
+                equity[first] += prizes[place];
+                finish[first] = -1;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            equity[i] /= samples;
+        }
+        return equity;
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.concurrent.atomic.*;
+
+// Lock-free latency histogram in nanoseconds. Buckets are log-linear like an HDR histogram:
+// 16 sub-buckets per power of two, so any recorded value is known to within 1/16th. Counts
+// are striped by thread so tables recording on many threads rarely touch the same line;
+// readers add the stripes up. Recording is a single increment: sum and max are derived from
+// the buckets, to the same precision.
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = (64 - 4) * SUB_BUCKETS;
+    // Twice the processor count, rounded up to a power of two.
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2);
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        stripes[stripe].getAndIncrement(bucket(nanos));
+    }
+
+    // Records the time elapsed since startNanos, a System.nanoTime() reading.
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return (exponent - 3) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketStart(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 4);
+    }
+
+    // Largest value that falls into the bucket.
+    static long bucketLimit(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return bucketStart(bucket) + (1L << (exponent - 4)) - 1;
+    }
+
+    public Summary summarize() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                count += c;
+            }
+        }
+        long sum = 0;
+        long largest = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                long limit = bucketLimit(i);
+                sum += counts[i] * (limit - (limit - bucketStart(i)) / 2);
+                largest = limit;
+            }
+        }
+        return new Summary(count, sum, percentile(counts, count, 0.5, largest), percentile(counts, count, 0.9, largest),
+                percentile(counts, count, 0.99, largest), percentile(counts, count, 0.999, largest), largest);
+    }
+
+    private static long percentile(long[] counts, long count, double fraction, long largest) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketLimit(i);
+            }
+        }
+        return largest;
+    }
+
+    // A point-in-time view, in nanoseconds, each value rounded to its bucket. Public getters so JMX can show it as composite data.
+    public static class Summary {
+        private final long count;
+        private final long sum;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Summary(long count, long sum, long p50, long p90, long p99, long p999, long max) {
+            this.count = count;
+            this.sum = sum;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
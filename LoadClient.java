@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Load generator for TableServer: opens many connections from one selector thread, joins
+// each to a table and answers every prompt at random. A share of the clients never answer,
+// to exercise the server's action timeouts. Prints throughput once a second.
+public class LoadClient {
+    private final Selector selector;
+    private final SplittableRandom random;
+    private final int silentPercent;
+    private long prompts;
+    private long hands;
+    private long timeouts;
+    private long errors;
+    private int connected;
+
+    public LoadClient(InetSocketAddress address, int connections, int silentPercent, long seed) throws IOException {
+        this.selector = Selector.open();
+        this.random = new SplittableRandom(seed);
+        this.silentPercent = silentPercent;
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(address);
+            Client client = new Client("bot" + i, random.nextInt(100) < silentPercent);
+            channel.register(selector, SelectionKey.OP_CONNECT, client);
+        }
+    }
+
+    public void run(long millis) throws IOException {
+        long end = System.currentTimeMillis() + millis;
+        long nextReport = System.currentTimeMillis() + 1000;
+        long lastPrompts = 0;
+        while (System.currentTimeMillis() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        connect(key, client);
+                    } else {
+                        if (key.isReadable()) {
+                            read(key, client);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(key, client);
+                        }
+                    }
+                } catch (IOException e) {
+                    key.cancel();
+                    key.channel().close();
+                    connected--;
+                }
+            }
+            if (System.currentTimeMillis() >= nextReport) {
+                System.out.printf("connected %d, prompts/s %d, hand ends seen %d, timeouts %d, errors %d%n",
+                        connected, prompts - lastPrompts, hands, timeouts, errors);
+                lastPrompts = prompts;
+                nextReport += 1000;
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void connect(SelectionKey key, Client client) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        channel.finishConnect();
+        connected++;
+        key.interestOps(SelectionKey.OP_READ);
+        send(key, client, "JOIN " + client.name + " 1000");
+    }
+
+    private void read(SelectionKey key, Client client) throws IOException {
+        ByteBuffer buffer = client.readBuffer;
+        if (((SocketChannel) key.channel()).read(buffer) < 0) {
+            throw new IOException("Server closed the connection");
+        }
+        buffer.flip();
+        int lineStart = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                handle(key, client, new String(buffer.array(), lineStart, i - lineStart, StandardCharsets.US_ASCII));
+                lineStart = i + 1;
+            }
+        }
+        buffer.position(lineStart);
+        buffer.compact();
+    }
+
+    private void handle(SelectionKey key, Client client, String line) throws IOException {
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "ACT":
+                prompts++;
+                if (!client.silent) {
+                    send(key, client, answer(parts));
+                }
+                break;
+            case "END":
+                hands++;
+                break;
+            case "TIMEOUT":
+                timeouts++;
+                break;
+            case "ERR":
+                errors++;
+                break;
+            case "BUST":
+            case "STANDING":
+                send(key, client, "JOIN " + client.name + " 1000");
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ACT currentBet yourBet chips canRaise minRaise
+    private String answer(String[] prompt) {
+        boolean facingBet = !prompt[1].equals(prompt[2]);
+        boolean canRaise = prompt[4].equals("1");
+        int roll = random.nextInt(100);
+        if (roll < 10 && canRaise) {
+            return "RAISE " + (Integer.parseInt(prompt[5]) + random.nextInt(50));
+        }
+        if (roll < 25 && facingBet) {
+            return "FOLD";
+        }
+        return facingBet ? "CALL" : "CHECK";
+    }
+
+    private void send(SelectionKey key, Client client, String line) throws IOException {
+        client.writes.add(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII)));
+        flush(key, client);
+    }
+
+    private void flush(SelectionKey key, Client client) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = client.writes.peek()) != null) {
+            ((SocketChannel) key.channel()).write(buffer);
+            if (buffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            client.writes.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private static final class Client {
+        final String name;
+        final boolean silent;
+        final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+        final Deque<ByteBuffer> writes = new ArrayDeque<>();
+
+        Client(String name, boolean silent) {
+            this.name = name;
+            this.silent = silent;
+        }
+    }
+
+    // java LoadClient [host] [port] [connections] [seconds] [silentPercent]
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long seconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+        int silent = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        LoadClient client = new LoadClient(new InetSocketAddress(host, port), connections, silent, System.nanoTime());
+        client.run(seconds * 1000);
+    }
+}
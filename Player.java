@@ -4,13 +4,17 @@ public class Player {
     private String name;
     private int chips;
     private List<Card> hand;
+    private long handMask;
+    private final HandState handState;
     private int currentBet;
     private boolean active;
+    private PlayerStrategy strategy;
 
     public Player(String name, int chips) {
         this.name = name;
         this.chips = chips;
         this.hand = new ArrayList<>();
+        this.handState = new HandState();
         this.currentBet = 0;
         this.active = true;
     }
@@ -27,6 +31,15 @@ public class Player {
         return hand;
     }
 
+    public long getHandMask() {
+        return handMask;
+    }
+
+    // Strength of the hole cards plus the community cards dealt so far.
+    public HandState getHandState() {
+        return handState;
+    }
+
     public int getCurrentBet() {
         return currentBet;
     }
@@ -39,6 +52,14 @@ public class Player {
         this.active = active;
     }
 
+    public PlayerStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(PlayerStrategy strategy) {
+        this.strategy = strategy;
+    }
+
     public void placeBet(int amount) {
         currentBet += amount;
         chips -= amount;
@@ -48,8 +69,23 @@ public class Player {
         currentBet = 0;
     }
 
+    // Players without chips sit the hand out.
+    public void resetForNewHand() {
+        hand.clear();
+        handMask = 0;
+        handState.reset();
+        currentBet = 0;
+        active = chips > 0;
+    }
+
     public void receiveCard(Card card) {
         hand.add(card);
+        handMask |= card.getMask();
+        handState.addCard(card);
+    }
+
+    public void seeCommunityCard(Card card) {
+        handState.addCard(card);
     }
 
     public void receiveChips(int amount) {
@@ -0,0 +1,133 @@
+// Per-player totals over recorded hands. Accumulators from different threads are combined
+// with merge(), so each worker can count on its own without locking.
+public class PlayerStats {
+    private final String name;
+    private long hands;
+    private long voluntarilyPutIn;
+    private long preflopRaised;
+    private long betsAndRaises;
+    private long calls;
+    private long wentToShowdown;
+    private long wonAtShowdown;
+    private long netChips;
+    private double netBigBlinds;
+    private final long[] showdownHandTypes = new long[10];
+
+    public PlayerStats(String name) {
+        this.name = name;
+    }
+
+    // Adds one hand for the given seat of the record.
+    void add(HandRecord record, int seat, boolean showdown, long foldedSeats) {
+        hands++;
+        int net = record.getFinalStack(seat) - record.getStartingStack(seat);
+        netChips += net;
+        netBigBlinds += (double) net / record.getBigBlind();
+
+        int total = record.getBlindPosted(seat);
+        boolean vpip = false;
+        boolean pfr = false;
+        for (int i = 0; i < record.getActionCount(); i++) {
+            if (record.getActionSeat(i) != seat) {
+                continue;
+            }
+            int after = record.getActionTotalBet(i);
+            if (after > total) {
+                if (record.getActionType(i) == ActionType.RAISE) {
+                    betsAndRaises++;
+                    pfr |= record.getActionStreet(i) == 0;
+                } else {
+                    calls++;
+                }
+                vpip |= record.getActionStreet(i) == 0;
+            }
+            total = after;
+        }
+        if (vpip) {
+            voluntarilyPutIn++;
+        }
+        if (pfr) {
+            preflopRaised++;
+        }
+
+        if (showdown && (foldedSeats & (1L << seat)) == 0) {
+            wentToShowdown++;
+            for (int i = 0; i < record.getPotCount(); i++) {
+                if ((record.getPotWinners(i) & (1L << seat)) != 0) {
+                    wonAtShowdown++;
+                    break;
+                }
+            }
+            int score = HandEvaluator.evaluateMask(record.getHoleCards(seat) | record.getBoardMask());
+            showdownHandTypes[score / 1000000]++;
+        }
+    }
+
+    public void merge(PlayerStats other) {
+        hands += other.hands;
+        voluntarilyPutIn += other.voluntarilyPutIn;
+        preflopRaised += other.preflopRaised;
+        betsAndRaises += other.betsAndRaises;
+        calls += other.calls;
+        wentToShowdown += other.wentToShowdown;
+        wonAtShowdown += other.wonAtShowdown;
+        netChips += other.netChips;
+        netBigBlinds += other.netBigBlinds;
+        for (int i = 0; i < showdownHandTypes.length; i++) {
+            showdownHandTypes[i] += other.showdownHandTypes[i];
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public double getVpip() {
+        return percentage(voluntarilyPutIn, hands);
+    }
+
+    public double getPfr() {
+        return percentage(preflopRaised, hands);
+    }
+
+    // Bets and raises per call.
+    public double getAggression() {
+        return calls == 0 ? betsAndRaises : (double) betsAndRaises / calls;
+    }
+
+    public double getWentToShowdown() {
+        return percentage(wentToShowdown, hands);
+    }
+
+    public double getWonAtShowdown() {
+        return percentage(wonAtShowdown, wentToShowdown);
+    }
+
+    public long getNetChips() {
+        return netChips;
+    }
+
+    public double getBigBlindsPer100() {
+        return hands == 0 ? 0 : netBigBlinds * 100 / hands;
+    }
+
+    // Showdowns reached with each hand type, indexed like HandEvaluator scores / 1000000.
+    public long getShowdownHandTypeCount(int handType) {
+        return showdownHandTypes[handType];
+    }
+
+    private static double percentage(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: hands %d, VPIP %.1f%%, PFR %.1f%%, AF %.2f, WTSD %.1f%%, W$SD %.1f%%, net %d (%.2f bb/100)",
+                name, hands, getVpip(), getPfr(), getAggression(), getWentToShowdown(), getWonAtShowdown(),
+                netChips, getBigBlindsPer100());
+    }
+}
@@ -0,0 +1,4 @@
+// Decides what a player does when it is their turn to act.
+public interface PlayerStrategy {
+    Action decide(PokerGame game, Player player);
+}
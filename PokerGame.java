@@ -1,67 +1,189 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class PokerGame {
+    static final int SNAPSHOT_MAGIC = 0x50534e50;
+    static final int SNAPSHOT_VERSION = 2;
+
+    // Where the current hand is; snapshots store it so a restored hand continues from there.
+    private static final int NOT_STARTED = -1;
+    private static final int PREFLOP = 0;
+    private static final int FLOP = 1;
+    private static final int RIVER = 3;
+    private static final int SETTLEMENT = 4;
+    private static final String[] ROUND_NAMES = {"Pre-flop", "Flop", "Turn", "River"};
+
     private Deck deck;
     private List<Player> players;
     private List<Card> communityCards;
+    private long communityMask;
     private int smallBlind;
     private int bigBlind;
     private int dealerPosition;
     private int smallBlindPosition;
     private int bigBlindPosition;
-    private Scanner scanner;
+    private PlayerStrategy defaultStrategy;
+    private GameListener listener;
     private int currentBet;
     private List<Pot> pots;
+    private final PotBuilder potBuilder = new PotBuilder();
+    private int[] contributions = new int[0];
+    private int[] payouts = new int[0];
+    private boolean handFinished;
+    private Showdown showdown;
+    private GameMetrics metrics = GameMetrics.global();
+    private int street = NOT_STARTED;
+    private final BettingRound round = new BettingRound();
 
     public PokerGame(List<Player> players, int smallBlind, int bigBlind) {
+        this(players, smallBlind, bigBlind, new Deck());
+    }
+
+    public PokerGame(List<Player> players, int smallBlind, int bigBlind, Deck deck) {
+        this(players, smallBlind, bigBlind, deck, new ConsoleStrategy(new Scanner(System.in)), new ConsoleListener());
+    }
+
+    // defaultStrategy decides for every player that has no strategy of their own.
+    public PokerGame(List<Player> players, int smallBlind, int bigBlind, Deck deck,
+                     PlayerStrategy defaultStrategy, GameListener listener) {
+        this(players, smallBlind, bigBlind, deck, defaultStrategy, listener, true);
+    }
+
+    private PokerGame(List<Player> players, int smallBlind, int bigBlind, Deck deck,
+                      PlayerStrategy defaultStrategy, GameListener listener, boolean postBlinds) {
         this.players = players;
-        this.deck = new Deck();
+        this.deck = deck;
         this.communityCards = new ArrayList<>();
         this.smallBlind = smallBlind;
         this.bigBlind = bigBlind;
-        this.scanner = new Scanner(System.in);
+        this.defaultStrategy = defaultStrategy;
+        this.listener = listener;
         this.currentBet = bigBlind;
-        this.pots = new ArrayList<>(); //
-        determineDealer();
-        setBlinds();
+        this.pots = new ArrayList<>();
+        if (postBlinds) {
+            determineDealer();
+            postBlinds();
+        }
     }
 
     private void determineDealer() {
         dealerPosition = 0; // For simplicity, let's just start with the first player as the dealer
     }
 
-    private void setBlinds() {
-        smallBlindPosition = (dealerPosition + 1) % players.size();
-        bigBlindPosition = (dealerPosition + 2) % players.size();
-        players.get(smallBlindPosition).placeBet(smallBlind);
-        players.get(bigBlindPosition).placeBet(bigBlind);
+    private void postBlinds() {
+        smallBlindPosition = nextSeatWithChips(dealerPosition);
+        bigBlindPosition = nextSeatWithChips(smallBlindPosition);
+        Player smallBlindPlayer = players.get(smallBlindPosition);
+        Player bigBlindPlayer = players.get(bigBlindPosition);
+        smallBlindPlayer.placeBet(Math.min(smallBlind, smallBlindPlayer.getChips()));
+        bigBlindPlayer.placeBet(Math.min(bigBlind, bigBlindPlayer.getChips()));
     }
 
-    public void startGame() {
-        dealStartingHands();
-        performBettingRound(bigBlindPosition + 1, "Pre-flop");
-        if (playersStillInGame() > 1) {
-            dealFlop();
-            performBettingRound(smallBlindPosition, "Flop");
+    private int nextSeatWithChips(int position) {
+        for (int i = 1; i <= players.size(); i++) {
+            int seat = (position + i) % players.size();
+            if (players.get(seat).getChips() > 0) {
+                return seat;
+            }
         }
-        if (playersStillInGame() > 1) {
-            dealTurn();
-            performBettingRound(smallBlindPosition, "Turn");
+        return (position + 1) % players.size();
+    }
+
+    // Plays the next hand at this table, preparing it first if the previous one is over.
+    // A hand restored from a snapshot is played on from where the snapshot was taken.
+    public void playHand() {
+        if (handFinished) {
+            nextHand();
         }
-        if (playersStillInGame() > 1) {
-            dealRiver();
-            performBettingRound(smallBlindPosition, "River");
+        if (street == NOT_STARTED) {
+            startGame();
+        } else {
+            listener.onHandResumed(this);
+            playStreets();
         }
-        if (playersStillInGame() > 1) {
-            createPots();
-            distributePots();
+    }
+
+    // Clears the finished hand, moves the button to the next player with chips and posts blinds.
+    public void nextHand() {
+        deck.reset();
+        communityCards.clear();
+        communityMask = 0;
+        pots.clear();
+        showdown = null;
+        currentBet = bigBlind;
+        for (Player player : players) {
+            player.resetForNewHand();
         }
+        dealerPosition = nextSeatWithChips(dealerPosition);
+        postBlinds();
+        street = NOT_STARTED;
+        handFinished = false;
+    }
+
+    // Takes effect from the next hand.
+    public void setBlindLevel(int smallBlind, int bigBlind) {
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+    }
+
+    // Seating changes are only allowed between hands.
+    public void seatPlayer(Player player) {
+        player.resetForNewHand();
+        players.add(player);
+    }
+
+    public void removePlayer(Player player) {
+        int seat = players.indexOf(player);
+        if (seat < 0) {
+            return;
+        }
+        players.remove(seat);
+        if (seat < dealerPosition || dealerPosition >= players.size()) {
+            dealerPosition = Math.max(0, dealerPosition - 1);
+        }
+    }
+
+    public void startGame() {
+        street = PREFLOP;
+        round.start(players, currentBet, bigBlind, bigBlindPosition + 1);
+        dealStartingHands();
+        listener.onHandStart(this);
+        listener.onBettingRoundStart(ROUND_NAMES[street]);
+        playStreets();
+    }
+
+    // Betting on each street until the river is done or one player is left, then settlement.
+    private void playStreets() {
+        while (street <= RIVER) {
+            performBettingRound();
+            if (street == RIVER || Long.bitCount(round.getLiveSeats()) < 2) {
+                street = SETTLEMENT;
+            } else {
+                street++;
+                round.start(players, currentBet, bigBlind, smallBlindPosition);
+                if (street == FLOP) {
+                    dealFlop();
+                } else {
+                    dealStreetCard();
+                }
+                listener.onBettingRoundStart(ROUND_NAMES[street]);
+            }
+        }
+        long settleStart = metrics.startTimer();
+        settlePots();
+        metrics.stopTimer(metrics.potSettlement, settleStart);
+        metrics.hands.increment();
+        handFinished = true;
+        listener.onHandEnd(this);
     }
 
     private void dealStartingHands() {
         for (int i = 0; i < 2; i++) {
             for (Player player : players) {
-                player.receiveCard(deck.dealCard());
+                if (player.isActive()) {
+                    player.receiveCard(deck.dealCard());
+                }
             }
         }
     }
@@ -69,171 +191,118 @@ public class PokerGame {
     private void dealFlop() {
         deck.dealCard(); // Burn a card
         for (int i = 0; i < 3; i++) {
-            communityCards.add(deck.dealCard());
+            dealCommunityCard();
         }
-        System.out.println("Community cards: " + communityCards);
+        listener.onCommunityCards(communityCards);
     }
 
-    private void dealTurn() {
+    // The turn or the river.
+    private void dealStreetCard() {
         deck.dealCard(); // Burn a card
-        communityCards.add(deck.dealCard());
-        System.out.println("Community cards: " + communityCards);
+        dealCommunityCard();
+        listener.onCommunityCards(communityCards);
     }
 
-    private void dealRiver() {
-        deck.dealCard(); // Burn a card
-        communityCards.add(deck.dealCard());
-        System.out.println("Community cards: " + communityCards);
+    private void dealCommunityCard() {
+        Card card = deck.dealCard();
+        communityCards.add(card);
+        communityMask |= card.getMask();
+        for (Player player : players) {
+            if (player.isActive()) {
+                player.seeCommunityCard(card);
+            }
+        }
     }
 
-    private void performBettingRound(int startingPosition, String roundName) {
-        System.out.println("Starting " + roundName + " betting round.");
-        boolean bettingRoundActive = true;
-        int playersToAct = playersStillInGame();
+    private void performBettingRound() {
+        long start = metrics.startTimer();
+        playBettingRound();
+        metrics.stopTimer(metrics.bettingRound, start);
+    }
 
-        while (bettingRoundActive && playersToAct > 0 && playerCanPlaceBet() > 1) {
-            bettingRoundActive = false;
-            for (int i = 0; i < players.size(); i++) {
-                Player player = players.get((startingPosition + i) % players.size());
-                if (player.isActive()) {
-                    displayPlayerBets();
-                    System.out.println("Community cards: " + communityCards);
-                    System.out.println("Your hand: " + player.getHand());
-                    System.out.println("Current bet: " + currentBet);
-                    System.out.println(player.getName() + "'s turn. Current chips: " + player.getChips());
-
-                    int playerMaxBet = player.getChips() + player.getCurrentBet();
-
-                    if (player.getChips() == 0) {
-                        System.out.println(player.getName() + " is all-in with " + player.getChips() + " chips.");
-                        playersToAct--;
-                        continue;
-                    }
+    // Asks the next seat to act until the round is complete; continues a restored round too.
+    private void playBettingRound() {
+        for (int seat = round.nextToAct(); seat >= 0; seat = round.nextToAct()) {
+            Player player = players.get(seat);
+            listener.onTurn(this, player);
 
-                    if (player.getCurrentBet() == currentBet) {
-                        if (playerMaxBet > currentBet) {
-                            System.out.println("Choose action: 1) Fold 2) Check 3) Raise");
-                        } else {
-                            System.out.println("Choose action: 1) Fold 2) Check");
-                        }
-                        int action = scanner.nextInt();
-                        switch (action) {
-                            case 1: // Fold
-                                player.setActive(false);
-                                playersToAct--;
-                                break;
-                            case 2: // Check
-                                // Do nothing as player checks
-                                playersToAct--;
-                                break;
-                            case 3: // Raise
-                                if (playerMaxBet > currentBet) {
-                                    System.out.println("Enter raise amount:");
-                                    int raiseAmount = scanner.nextInt();
-                                    int raiseToAmount = currentBet + raiseAmount;
-                                    if (raiseToAmount > playerMaxBet) {
-                                        System.out.println(
-                                                "Raise amount exceeds your chips. Setting raise amount to max possible: "
-                                                        + player.getChips());
-                                        raiseToAmount = playerMaxBet;
-                                    }
-                                    currentBet = raiseToAmount;
-                                    player.placeBet(currentBet - player.getCurrentBet());
-                                    bettingRoundActive = true; // Another round of betting is needed
-                                    playersToAct = playersStillInGame(); // Reset players to act
-                                } else {
-                                    System.out.println("Invalid action. You cannot raise.");
-                                }
-                                break;
-                            default:
-                                System.out.println("Invalid action. Folding by default.");
-                                player.setActive(false);
-                                playersToAct--;
-                                break;
+            long decideStart = metrics.startTimer();
+            Action action = strategyFor(player).decide(this, player);
+            metrics.stopTimer(metrics.decisionWait, decideStart);
+            // Listeners hear what was done, which may differ from what was asked for.
+            Action applied = action;
+            switch (action.getType()) {
+                case FOLD:
+                    round.fold(seat);
+                    metrics.folds.increment();
+                    break;
+                case CHECK:
+                case CALL:
+                    if (currentBet - player.getCurrentBet() > player.getChips()) {
+                        listener.onBetCapped(player, ActionType.CALL);
+                    }
+                    applied = round.call(seat) > 0 ? Action.call() : Action.check();
+                    break;
+                case RAISE:
+                    if (round.canRaise(seat)) {
+                        // Raises below the minimum are made up to it, or to all in if that is less.
+                        int increment = Math.max(action.getAmount(), round.getMinRaise());
+                        int maxRaise = round.getMaxRaise(seat);
+                        if (increment > maxRaise) {
+                            if (action.getAmount() > maxRaise) {
+                                listener.onBetCapped(player, ActionType.RAISE);
+                            }
+                            increment = maxRaise;
                         }
+                        round.raise(seat, increment);
+                        currentBet = round.getCurrentBet();
+                        applied = increment == action.getAmount() ? action : Action.raise(increment);
                     } else {
-                        if (playerMaxBet > currentBet) {
-                            System.out.println("Choose action: 1) Fold 2) Call 3) Raise");
-                        } else {
-                            System.out.println("Choose action: 1) Fold 2) Call");
-                        }
-                        int action = scanner.nextInt();
-                        switch (action) {
-                            case 1: // Fold
-                                player.setActive(false);
-                                playersToAct--;
-                                break;
-                            case 2: // Call
-                                int callAmount = currentBet - player.getCurrentBet();
-                                if (callAmount > player.getChips()) {
-                                    System.out.println(
-                                            "Call amount exceeds your chips. Setting call amount to max possible: "
-                                                    + player.getChips());
-                                    callAmount = player.getChips();
-                                }
-                                player.placeBet(callAmount);
-                                playersToAct--;
-                                break;
-                            case 3: // Raise
-                                if (playerMaxBet > currentBet) {
-                                    System.out.println("Enter raise amount:");
-                                    int raiseAmount = scanner.nextInt();
-                                    int raiseToAmount = currentBet + raiseAmount;
-                                    if (raiseToAmount > playerMaxBet) {
-                                        System.out.println(
-                                                "Raise amount exceeds your chips. Setting raise amount to max possible: "
-                                                        + player.getChips());
-                                        raiseToAmount = playerMaxBet;
-                                    }
-                                    currentBet = raiseToAmount;
-                                    player.placeBet(currentBet - player.getCurrentBet());
-                                    bettingRoundActive = true; // Another round of betting is needed
-                                    playersToAct = playersStillInGame(); // Reset players to act
-                                } else {
-                                    System.out.println("Invalid action. You cannot raise.");
-                                }
-                                break;
-                            default:
-                                System.out.println("Invalid action. Folding by default.");
-                                player.setActive(false);
-                                playersToAct--;
-                                break;
-                        }
+                        listener.onInvalidRaise(player);
+                        applied = round.call(seat) > 0 ? Action.call() : Action.check();
                     }
-                }
+                    break;
+            }
+            metrics.actions.increment();
+            boolean allIn = player.getChips() == 0 && player.isActive();
+            if (allIn) {
+                metrics.allIns.increment();
+            }
+            listener.onAction(player, applied);
+            if (allIn) {
+                listener.onAllIn(player);
             }
         }
     }
 
+    private PlayerStrategy strategyFor(Player player) {
+        return player.getStrategy() != null ? player.getStrategy() : defaultStrategy;
+    }
+
+    // Package-private so benchmarks can replay settlement of a finished hand.
+    void settlePots() {
+        pots.clear();
+        createPots();
+        distributePots();
+    }
+
     private void createPots() {
-        List<Player> activePlayers = new ArrayList<>();
-        for (Player player : players) {
+        int seats = players.size();
+        if (contributions.length < seats) {
+            contributions = new int[seats];
+            payouts = new int[seats];
+        }
+        long liveSeats = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            Player player = players.get(seat);
+            contributions[seat] = player.getCurrentBet();
             if (player.isActive()) {
-                activePlayers.add(player);
+                liveSeats |= 1L << seat;
             }
         }
-
-        activePlayers.sort((p1, p2) -> Integer.compare(p1.getCurrentBet(), p2.getCurrentBet()));
-
-        int previousBet = 0;
-        for (int i = 0; i < activePlayers.size(); i++) {
-            Player player = activePlayers.get(i);
-            int bet = player.getCurrentBet();
-            if (bet > previousBet) {
-                Pot pot = new Pot();
-                int potAmount = (bet - previousBet);
-                List<Player> playersInvolved = new ArrayList<>(activePlayers.subList(i, activePlayers.size()));
-                pot.addBet(potAmount, playersInvolved);
-                pots.add(pot);
-                previousBet = bet;
-            }
-        }
-    }
-
-    private void displayPlayerBets() {
-        System.out.println("Current player bets:");
-        for (Player player : players) {
-            System.out.println(player.getName() + ": " + player.getCurrentBet());
+        int potCount = potBuilder.build(contributions, seats, liveSeats);
+        for (int i = 0; i < potCount; i++) {
+            pots.add(new Pot(potBuilder.getAmount(i), potBuilder.getEligibleSeats(i)));
         }
     }
 
@@ -247,70 +316,216 @@ public class PokerGame {
         return count;
     }
 
-    private int playerCanPlaceBet(){
-        int count = 0;
-        for (Player player: players){
-            if(player.isActive() && player.getChips() > 0){
-                count++;
-            }
-        }
-        return count;
-    }
-
     private void distributePots() {
         int potIndex = 0; // 初始化彩池索引
+        int seats = players.size();
+        Arrays.fill(payouts, 0, seats, 0);
 
+        // 每位玩家只評估一次; 只剩一位玩家時不需要攤牌
+        showdown = null;
+        if (playersStillInGame() > 1) {
+            long start = metrics.startTimer();
+            showdown = Showdown.evaluate(this);
+            metrics.stopTimer(metrics.showdown, start);
+        }
         for (Pot pot : pots) {
-            List<Player> candidateWinners = new ArrayList<>();
-            int bestScore = -1;
             // 找到所有可能的贏家
-            for (Player player : pot.getPlayers()) {
-                List<Card> combinedHand = new ArrayList<>(player.getHand());
-                combinedHand.addAll(communityCards);
-                int score = HandEvaluator.evaluateHand(combinedHand);
-                if (score > bestScore) {
-                    candidateWinners.clear();
-                    bestScore = score;
-                    candidateWinners.add(player);
-                } else if (score == bestScore) {
-                    candidateWinners.add(player);
+            long winnerSeats = showdown == null ? pot.getEligibleSeats() : showdown.winners(pot.getEligibleSeats());
+            if (winnerSeats != 0) {
+                List<Player> candidateWinners = new ArrayList<>(Long.bitCount(winnerSeats));
+                for (long remaining = winnerSeats; remaining != 0; remaining &= remaining - 1) {
+                    candidateWinners.add(players.get(Long.numberOfTrailingZeros(remaining)));
                 }
+                listener.onPotAwarded(potIndex, pot.getAmount(), candidateWinners);
+                PotBuilder.split(pot.getAmount(), winnerSeats, dealerPosition, seats, payouts); // 平分獎池金额
             }
-            if (!candidateWinners.isEmpty()) {
-                if (candidateWinners.size() == 1) {
-                    Player potWinner = candidateWinners.get(0);
-                    if (potIndex == 0) {
-                        System.out.println(
-                                "Main Pot winner is: " + potWinner.getName() + " with " + pot.getAmount() + " chips.");
-                    } else {
-                        System.out.println("Side Pot " + potIndex + " winner is: " + potWinner.getName() + " with "
-                                + pot.getAmount() + " chips.");
-                    }
-                    potWinner.receiveChips(pot.getAmount());
-                } else {
-                    // 平手的情况
-                    if (potIndex == 0) {
-                        System.out.println("There is a tie for the Main Pot.");
-                    } else {
-                        System.out.println("There is a tie for Side Pot " + potIndex + ".");
-                    }
-                    System.out.println("The pot of " + pot.getAmount()
-                            + " chips will be divided equally among the following players:");
-                    for (Player tiePlayer : candidateWinners) {
-                        System.out.println(tiePlayer.getName());
-                        tiePlayer.receiveChips(pot.getAmount() / candidateWinners.size()); // 平分獎池金额
-                    }
+            potIndex++; // 更新彩池索引
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            if (payouts[seat] > 0) {
+                players.get(seat).receiveChips(payouts[seat]);
+            }
+        }
+    }
+
+    // Versioned binary snapshot of the table between two actions, small enough to take after
+    // every one. Strategies, the listener and the deck's random generator are not included,
+    // and pots are rebuilt from the bets at settlement.
+    //
+    // Layout (big-endian): int magic, byte version, int smallBlind, int bigBlind,
+    //   byte dealer, byte smallBlindSeat, byte bigBlindSeat, int currentBet, byte street,
+    //   long pendingSeats, long closedSeats, int minRaise, byte lastSeat, byte handFinished,
+    //   byte dealt, 52 bytes deck order, byte boardCards, board card ids,
+    //   byte seats, per seat: short nameLength, name (UTF-8), int chips, int currentBet,
+    //   byte active, byte holeCards, hole card ids
+    public void writeSnapshot(ByteBuffer out) {
+        out.putInt(SNAPSHOT_MAGIC);
+        out.put((byte) SNAPSHOT_VERSION);
+        out.putInt(smallBlind);
+        out.putInt(bigBlind);
+        out.put((byte) dealerPosition);
+        out.put((byte) smallBlindPosition);
+        out.put((byte) bigBlindPosition);
+        out.putInt(currentBet);
+        out.put((byte) street);
+        boolean betting = street >= PREFLOP && street <= RIVER;
+        out.putLong(betting ? round.getPending() : 0);
+        out.putLong(betting ? round.getClosed() : 0);
+        out.putInt(betting ? round.getMinRaise() : 0);
+        out.put((byte) (betting ? round.getLastSeat() : 0));
+        out.put((byte) (handFinished ? 1 : 0));
+        deck.writeTo(out);
+        out.put((byte) communityCards.size());
+        for (Card card : communityCards) {
+            out.put((byte) card.getId());
+        }
+        out.put((byte) players.size());
+        for (Player player : players) {
+            byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.putInt(player.getChips());
+            out.putInt(player.getCurrentBet());
+            out.put((byte) (player.isActive() ? 1 : 0));
+            out.put((byte) player.getHand().size());
+            for (Card card : player.getHand()) {
+                out.put((byte) card.getId());
+            }
+        }
+    }
+
+    public byte[] snapshot() {
+        int size = 4 + 1 + 4 + 4 + 3 + 4 + 23 + 53 + 1 + communityCards.size() + 1;
+        for (Player player : players) {
+            size += 2 + player.getName().getBytes(StandardCharsets.UTF_8).length + 4 + 4 + 1 + 1 + player.getHand().size();
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        writeSnapshot(out);
+        return out.array();
+    }
+
+    // Rebuilds a table from writeSnapshot. The deck keeps its own random generator; only its
+    // order is restored. Call playHand() to continue the hand.
+    public static PokerGame restoreSnapshot(ByteBuffer in, Deck deck, PlayerStrategy defaultStrategy,
+                                            GameListener listener) {
+        if (in.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalArgumentException("Not a table snapshot");
+        }
+        int version = in.get();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Unsupported table snapshot version " + version);
+        }
+        int smallBlind = in.getInt();
+        int bigBlind = in.getInt();
+        PokerGame game = new PokerGame(new ArrayList<>(), smallBlind, bigBlind, deck, defaultStrategy, listener, false);
+        game.dealerPosition = in.get();
+        game.smallBlindPosition = in.get();
+        game.bigBlindPosition = in.get();
+        game.currentBet = in.getInt();
+        game.street = in.get();
+        long pending = in.getLong();
+        long closed = in.getLong();
+        int minRaise = in.getInt();
+        int lastSeat = in.get();
+        game.handFinished = in.get() != 0;
+        deck.readFrom(in);
+        int boardCards = in.get();
+        for (int i = 0; i < boardCards; i++) {
+            Card card = Card.of(in.get());
+            game.communityCards.add(card);
+            game.communityMask |= card.getMask();
+        }
+        int seats = in.get();
+        for (int seat = 0; seat < seats; seat++) {
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            int chips = in.getInt();
+            int bet = in.getInt();
+            Player player = new Player(new String(name, StandardCharsets.UTF_8), chips + bet);
+            player.placeBet(bet);
+            boolean active = in.get() != 0;
+            int holeCards = in.get();
+            for (int i = 0; i < holeCards; i++) {
+                player.receiveCard(Card.of(in.get()));
+            }
+            if (holeCards > 0) {
+                for (Card card : game.communityCards) {
+                    player.seeCommunityCard(card);
                 }
             }
-            potIndex++; // 更新彩池索引
+            player.setActive(active);
+            game.players.add(player);
+        }
+        if (game.street >= PREFLOP && game.street <= RIVER) {
+            game.round.restore(game.players, game.currentBet, minRaise, pending, closed, lastSeat);
         }
+        return game;
+    }
+
+    // Replaces GameMetrics.global(), e.g. to keep one table's numbers apart.
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
     }
 
     public List<Player> getPlayers() {
         return players;
     }
 
+    public int getDealerPosition() {
+        return dealerPosition;
+    }
+
+    public int getSmallBlindPosition() {
+        return smallBlindPosition;
+    }
+
+    public int getBigBlindPosition() {
+        return bigBlindPosition;
+    }
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    public int getSmallBlind() {
+        return smallBlind;
+    }
+
+    public int getBigBlind() {
+        return bigBlind;
+    }
+
+    // Chips committed by all players so far this hand.
+    public int getPotSize() {
+        int total = 0;
+        for (Player player : players) {
+            total += player.getCurrentBet();
+        }
+        return total;
+    }
+
+    // Whether the player may raise now: they have chips beyond the call and, after a short
+    // all-in raise, the betting is still open to them.
+    public boolean canRaise(Player player) {
+        int seat = players.indexOf(player);
+        return seat >= 0 && street >= PREFLOP && street <= RIVER && round.canRaise(seat);
+    }
+
+    // The current street's betting: who is to act, the minimum raise and the legal actions.
+    public BettingRound getBettingRound() {
+        return round;
+    }
+
+    // Scores of the last showdown at this table, or null if the hand did not reach one.
+    public Showdown getShowdown() {
+        return showdown;
+    }
+
     public List<Card> getCommunityCards() {
         return communityCards;
     }
+
+    public long getCommunityMask() {
+        return communityMask;
+    }
 }
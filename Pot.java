@@ -1,24 +1,18 @@
-import java.util.*;
-
 class Pot {
-    private int amount;
-    private List<Player> players;
-
-    public Pot() {
-        amount = 0;
-        players = new ArrayList<>();
-    }
+    private final int amount;
+    private final long eligibleSeats;
 
-    public void addBet(int bet, List<Player> playersInvolved) {
-        amount += bet * playersInvolved.size();
-        players.addAll(playersInvolved);
+    public Pot(int amount, long eligibleSeats) {
+        this.amount = amount;
+        this.eligibleSeats = eligibleSeats;
     }
 
     public int getAmount() {
         return amount;
     }
 
-    public List<Player> getPlayers() {
-        return players;
+    // Bit i set when the player in seat i can win this pot.
+    public long getEligibleSeats() {
+        return eligibleSeats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+import java.util.*;
+
+// Builds the main pot and side pots from every seat's total contribution to the hand,
+// folded seats included, in one sweep over the contributions sorted by size. Each pot is
+// an amount plus a bitmask of the seats still in the hand that can win it. Arrays are
+// reused between hands.
+public class PotBuilder {
+    private long[] sorted = new long[10];
+    private int[] amounts = new int[10];
+    private long[] eligible = new long[10];
+    private int potCount;
+
+    // liveSeats marks the seats that have not folded. Returns the number of pots built.
+    public int build(int[] contributions, int seats, long liveSeats) {
+        if (seats > 64) {
+            throw new IllegalArgumentException("At most 64 seats, got " + seats);
+        }
+        if (sorted.length < seats) {
+            sorted = new long[seats];
+            amounts = new int[seats];
+            eligible = new long[seats];
+        }
+        int n = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            if (contributions[seat] > 0) {
+                sorted[n++] = ((long) contributions[seat] << 6) | seat;
+            }
+        }
+        Arrays.sort(sorted, 0, n);
+
+        potCount = 0;
+        int previous = 0;
+        int pending = 0;
+        long remainingLive = liveSeats;
+        for (int i = 0; i < n; i++) {
+            int contribution = (int) (sorted[i] >>> 6);
+            long seat = 1L << (sorted[i] & 63);
+            if ((liveSeats & seat) == 0) {
+                // A folded seat below the next live level only feeds the pots up to its contribution.
+                pending += contribution - previous;
+                continue;
+            }
+            if (contribution > previous) {
+                // Every seat from here on contributed at least this much.
+                amounts[potCount] = pending + (contribution - previous) * (n - i);
+                eligible[potCount] = remainingLive;
+                potCount++;
+                pending = 0;
+                previous = contribution;
+            }
+            remainingLive &= ~seat;
+        }
+        if (pending > 0 && potCount > 0) {
+            // Folded chips above the largest live contribution go to the last pot.
+            amounts[potCount - 1] += pending;
+        } else if (pending > 0 && liveSeats != 0) {
+            // No seat still in the hand put chips in (e.g. its raise was refused before it
+            // called), so everything folded goes to the seats still in.
+            amounts[0] = pending;
+            eligible[0] = liveSeats;
+            potCount = 1;
+        }
+        return potCount;
+    }
+
+    public int getPotCount() {
+        return potCount;
+    }
+
+    public int getAmount(int pot) {
+        return amounts[pot];
+    }
+
+    public long getEligibleSeats(int pot) {
+        return eligible[pot];
+    }
+
+    // Splits amount evenly over winnerSeats into payouts. Odd chips go one each to the
+    // winners in seat order starting from the first seat left of the dealer.
+    public static void split(int amount, long winnerSeats, int dealer, int seats, int[] payouts) {
+        int winners = Long.bitCount(winnerSeats);
+        if (winners == 0) {
+            return;
+        }
+        int share = amount / winners;
+        int oddChips = amount % winners;
+        for (int i = 1; i <= seats; i++) {
+            int seat = (dealer + i) % seats;
+            if ((winnerSeats & (1L << seat)) != 0) {
+                payouts[seat] += share;
+                if (oddChips > 0) {
+                    payouts[seat]++;
+                    oddChips--;
+                }
+            }
+        }
+    }
+}
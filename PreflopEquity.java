@@ -0,0 +1,74 @@
+import java.io.*;
+import java.util.*;
+
+// Heads-up all-in preflop equity of every starting-hand class against every other, read
+// from a table generated offline by PreflopTableGenerator. The table is loaded on first use.
+//
+// Classes are cells of the 13x13 grid: a pair at [r][r], suited hands at [high][low] and
+// offsuit hands at [low][high], with rank indices 0..12 for 2..A.
+public class PreflopEquity {
+    static final String RESOURCE = "/preflop_equity.bin";
+    static final int MAGIC = 0x50464551;
+    static final int VERSION = 1;
+    public static final int CLASSES = 169;
+
+    private static final class Table {
+        // EQUITY[a * CLASSES + b]: equity of class a all in against class b.
+        static final float[] EQUITY = load();
+    }
+
+    public static double headsUp(List<Card> hand, List<Card> opponent) {
+        return headsUp(handClass(hand), handClass(opponent));
+    }
+
+    public static double headsUp(int handClass, int opponentClass) {
+        return Table.EQUITY[handClass * CLASSES + opponentClass];
+    }
+
+    public static int handClass(List<Card> hand) {
+        if (hand.size() != 2) {
+            throw new IllegalArgumentException("A starting hand has two cards, got " + hand.size());
+        }
+        return handClass(hand.get(0).getId(), hand.get(1).getId());
+    }
+
+    public static int handClass(int card1, int card2) {
+        int high = Math.max(card1 >>> 2, card2 >>> 2);
+        int low = Math.min(card1 >>> 2, card2 >>> 2);
+        boolean suited = (card1 & 3) == (card2 & 3);
+        return suited ? high * 13 + low : low * 13 + high;
+    }
+
+    // e.g. "AA", "AKs", "T9o".
+    public static String className(int handClass) {
+        int row = handClass / 13;
+        int column = handClass % 13;
+        String names = "23456789TJQKA";
+        if (row == column) {
+            return "" + names.charAt(row) + names.charAt(row);
+        }
+        int high = Math.max(row, column);
+        int low = Math.min(row, column);
+        return "" + names.charAt(high) + names.charAt(low) + (row > column ? "s" : "o");
+    }
+
+    private static float[] load() {
+        InputStream resource = PreflopEquity.class.getResourceAsStream(RESOURCE);
+        if (resource == null) {
+            throw new IllegalStateException("Preflop equity table " + RESOURCE
+                    + " is not on the classpath; generate it with java PreflopTableGenerator");
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(resource))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != CLASSES) {
+                throw new IllegalStateException("Preflop equity table " + RESOURCE + " has an unexpected format");
+            }
+            float[] equity = new float[CLASSES * CLASSES];
+            for (int i = 0; i < equity.length; i++) {
+                equity[i] = in.readFloat();
+            }
+            return equity;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read preflop equity table " + RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import java.io.*;
+import java.util.*;
+
+// Offline builder for the preflop equity table loaded by PreflopEquity.
+// Usage: java PreflopTableGenerator [output-file]
+//
+// Exhaustive over every five-card board: for each board all 1326 starting hands are scored
+// once, sorted, and every ordered pair of card-disjoint hands is credited to its two hand
+// classes. Class totals do not depend on suit names, so only one board per suit-isomorphism
+// class is processed, weighted by the number of boards it stands for.
+public class PreflopTableGenerator {
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : PreflopEquity.RESOURCE.substring(1);
+        long start = System.nanoTime();
+        float[] equities = generate();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            out.writeInt(PreflopEquity.MAGIC);
+            out.writeInt(PreflopEquity.VERSION);
+            out.writeInt(PreflopEquity.CLASSES);
+            for (float equity : equities) {
+                out.writeFloat(equity);
+            }
+        }
+        System.out.printf("Wrote %s in %.1f s%n", output, (System.nanoTime() - start) / 1e9);
+    }
+
+    static float[] generate() {
+        int classes = PreflopEquity.CLASSES;
+        int[] handCards = new int[1326 * 2];
+        long[] handMasks = new long[1326];
+        int[] handClass = new int[1326];
+        int hands = 0;
+        for (int a = 0; a < 52; a++) {
+            for (int b = a + 1; b < 52; b++) {
+                handCards[hands * 2] = a;
+                handCards[hands * 2 + 1] = b;
+                handMasks[hands] = (1L << a) | (1L << b);
+                handClass[hands] = PreflopEquity.handClass(a, b);
+                hands++;
+            }
+        }
+        // Hands sharing a card with each hand, for removing impossible pairs from the win counts.
+        int[][] conflicts = new int[1326][];
+        for (int h = 0; h < 1326; h++) {
+            int[] list = new int[101];
+            int n = 0;
+            for (int o = 0; o < 1326; o++) {
+                if (o != h && (handMasks[h] & handMasks[o]) != 0) {
+                    list[n++] = o;
+                }
+            }
+            conflicts[h] = Arrays.copyOf(list, n);
+        }
+
+        Map<Long, Integer> boards = canonicalBoards();
+        long[] wins = new long[classes * classes];
+        long[] ties = new long[classes * classes];
+        long[] sorted = new long[1326];
+        int[] scores = new int[1326];
+        long[] lower = new long[classes];
+        int done = 0;
+        for (Map.Entry<Long, Integer> entry : boards.entrySet()) {
+            long board = entry.getKey();
+            long weight = entry.getValue();
+            long boardRankKey = HandEvaluator.rankKey(board);
+            long boardSuitMasks = HandEvaluator.suitMasks(board);
+            int n = 0;
+            for (int h = 0; h < 1326; h++) {
+                if ((handMasks[h] & board) != 0) {
+                    scores[h] = -1;
+                    continue;
+                }
+                int c0 = handCards[h * 2];
+                int c1 = handCards[h * 2 + 1];
+                int score = HandEvaluator.lookup(
+                        boardRankKey + (1L << ((c0 >>> 2) * 3)) + (1L << ((c1 >>> 2) * 3)),
+                        boardSuitMasks | (1L << ((c0 & 3) * 16 + (c0 >>> 2))) | (1L << ((c1 & 3) * 16 + (c1 >>> 2))),
+                        7);
+                scores[h] = score;
+                sorted[n++] = ((long) score << 11) | h;
+            }
+            Arrays.sort(sorted, 0, n);
+            Arrays.fill(lower, 0);
+            int groupStart = 0;
+            while (groupStart < n) {
+                int groupEnd = groupStart;
+                int score = (int) (sorted[groupStart] >>> 11);
+                while (groupEnd < n && (int) (sorted[groupEnd] >>> 11) == score) {
+                    groupEnd++;
+                }
+                for (int i = groupStart; i < groupEnd; i++) {
+                    int a = (int) (sorted[i] & 2047);
+                    int row = handClass[a] * classes;
+                    for (int c = 0; c < classes; c++) {
+                        wins[row + c] += weight * lower[c];
+                    }
+                    for (int b : conflicts[a]) {
+                        if (scores[b] >= 0 && scores[b] < score) {
+                            wins[row + handClass[b]] -= weight;
+                        }
+                    }
+                    for (int j = groupStart; j < groupEnd; j++) {
+                        int b = (int) (sorted[j] & 2047);
+                        if ((handMasks[a] & handMasks[b]) == 0) {
+                            ties[row + handClass[b]] += weight;
+                        }
+                    }
+                }
+                for (int i = groupStart; i < groupEnd; i++) {
+                    lower[handClass[(int) (sorted[i] & 2047)]]++;
+                }
+                groupStart = groupEnd;
+            }
+            if (++done % 10000 == 0) {
+                System.out.printf("%d / %d boards%n", done, boards.size());
+            }
+        }
+
+        float[] equities = new float[classes * classes];
+        for (int i = 0; i < classes; i++) {
+            for (int j = 0; j < classes; j++) {
+                long total = wins[i * classes + j] + wins[j * classes + i] + ties[i * classes + j];
+                equities[i * classes + j] = (float) ((wins[i * classes + j] + ties[i * classes + j] / 2.0) / total);
+            }
+        }
+        return equities;
+    }
+
+    // One representative mask per suit-isomorphism class of five-card boards, with its class size.
+    private static Map<Long, Integer> canonicalBoards() {
+        int[][] permutations = new int[24][];
+        int p = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        permutations[p++] = new int[]{a, b, c, d};
+                    }
+                }
+            }
+        }
+        Map<Long, Integer> boards = new HashMap<>();
+        int[] cards = new int[5];
+        for (cards[0] = 0; cards[0] < 52; cards[0]++) {
+            for (cards[1] = cards[0] + 1; cards[1] < 52; cards[1]++) {
+                for (cards[2] = cards[1] + 1; cards[2] < 52; cards[2]++) {
+                    for (cards[3] = cards[2] + 1; cards[3] < 52; cards[3]++) {
+                        for (cards[4] = cards[3] + 1; cards[4] < 52; cards[4]++) {
+                            long canonical = Long.MAX_VALUE;
+                            for (int[] permutation : permutations) {
+                                long mask = 0;
+                                for (int id : cards) {
+                                    mask |= 1L << ((id & ~3) | permutation[id & 3]);
+                                }
+                                canonical = Math.min(canonical, mask);
+                            }
+                            boards.merge(canonical, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        }
+        return boards;
+    }
+}
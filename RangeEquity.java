@@ -0,0 +1,286 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// All-in equity of one weighted range against another on a given board. Each runout of
+// the board is evaluated once: both ranges' combos are scored against it into primitive
+// arrays and sorted, then one sweep credits every hero combo with the villain weight it
+// beats and ties, with card removal handled by per-card running totals instead of
+// comparing combos pair by pair. Runouts are split across the pool.
+//
+// Boards with more runouts than maxRunouts (in practice only preflop) are sampled.
+public class RangeEquity {
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int maxRunouts;
+    private final SplittableRandom random;
+
+    public RangeEquity() {
+        this(ForkJoinPool.commonPool(), 50000, new SplittableRandom());
+    }
+
+    public RangeEquity(ForkJoinPool pool, int maxRunouts, SplittableRandom random) {
+        this.pool = pool;
+        this.maxRunouts = maxRunouts;
+        this.random = random;
+    }
+
+    public RangeEquityResult calculate(HandRange hero, HandRange villain, List<Card> board, List<Card> deadCards) {
+        if (board.size() > 5) {
+            throw new IllegalArgumentException("At most five community cards, got " + board.size());
+        }
+        long boardMask = Card.toMask(board);
+        long deadMask = Card.toMask(deadCards);
+        if (Long.bitCount(boardMask | deadMask) != board.size() + deadCards.size()) {
+            throw new IllegalArgumentException("The same card appears more than once");
+        }
+        long[] runouts = runouts(boardMask, deadMask);
+        float[] heroWeights = weights(hero.without(boardMask | deadMask));
+        float[] villainWeights = weights(villain.without(boardMask | deadMask));
+
+        int chunks = (int) Math.min(runouts.length, (long) pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<Callable<Tally>> tasks = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) runouts.length * c / chunks);
+            int to = (int) ((long) runouts.length * (c + 1) / chunks);
+            tasks.add(new Chunk(runouts, from, to, heroWeights, villainWeights));
+        }
+        Tally total = new Tally();
+        for (Future<Tally> task : pool.invokeAll(tasks)) {
+            total.merge(join(task));
+        }
+        return total.toResult(heroWeights, runouts.length);
+    }
+
+    private static float[] weights(HandRange range) {
+        float[] weights = new float[HandRange.COMBOS];
+        for (int c = 0; c < HandRange.COMBOS; c++) {
+            weights[c] = range.getWeight(c);
+        }
+        return weights;
+    }
+
+    // Complete boards as card masks: every one if there are few enough, otherwise a sample.
+    private long[] runouts(long boardMask, long deadMask) {
+        int[] deck = new int[52 - Long.bitCount(boardMask | deadMask)];
+        int n = 0;
+        for (int id = 0; id < 52; id++) {
+            if (((boardMask | deadMask) & (1L << id)) == 0) {
+                deck[n++] = id;
+            }
+        }
+        int missing = 5 - Long.bitCount(boardMask);
+        long count = choose(deck.length, missing);
+        if (count <= maxRunouts) {
+            long[] runouts = new long[(int) count];
+            enumerate(runouts, 0, boardMask, deck, 0, missing);
+            return runouts;
+        }
+        long[] runouts = new long[maxRunouts];
+        for (int i = 0; i < runouts.length; i++) {
+            long mask = boardMask;
+            // Partial Fisher-Yates over a scratch copy of the deck.
+            for (int k = 0; k < missing; k++) {
+                int j = k + random.nextInt(deck.length - k);
+                int card = deck[j];
+                deck[j] = deck[k];
+                deck[k] = card;
+                mask |= 1L << card;
+            }
+            runouts[i] = mask;
+        }
+        return runouts;
+    }
+
+    private static int enumerate(long[] runouts, int next, long mask, int[] deck, int start, int missing) {
+        if (missing == 0) {
+            runouts[next] = mask;
+            return next + 1;
+        }
+        for (int i = start; i <= deck.length - missing; i++) {
+            next = enumerate(runouts, next, mask | (1L << deck[i]), deck, i + 1, missing - 1);
+        }
+        return next;
+    }
+
+    private static long choose(int n, int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) / (i + 1);
+        }
+        return result;
+    }
+
+    private static Tally join(Future<Tally> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Range equity interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Range equity failed", e.getCause());
+        }
+    }
+
+    // Scores runouts[from, to) into its own tally, reusing its arrays for every runout.
+    private static final class Chunk implements Callable<Tally> {
+        private final long[] runouts;
+        private final int from;
+        private final int to;
+        private final float[] heroWeights;
+        private final float[] villainWeights;
+        private final int[] heroCombos;
+        private final int[] villainCombos;
+        private final long[] heroSorted = new long[HandRange.COMBOS];
+        private final long[] villainSorted = new long[HandRange.COMBOS];
+        private final int[] villainScores = new int[HandRange.COMBOS];
+        private final double[] belowByCard = new double[52];
+        private final double[] throughByCard = new double[52];
+        private final double[] liveByCard = new double[52];
+
+        Chunk(long[] runouts, int from, int to, float[] heroWeights, float[] villainWeights) {
+            this.runouts = runouts;
+            this.from = from;
+            this.to = to;
+            this.heroWeights = heroWeights;
+            this.villainWeights = villainWeights;
+            this.heroCombos = nonZero(heroWeights);
+            this.villainCombos = nonZero(villainWeights);
+        }
+
+        private static int[] nonZero(float[] weights) {
+            int n = 0;
+            int[] combos = new int[HandRange.COMBOS];
+            for (int c = 0; c < HandRange.COMBOS; c++) {
+                if (weights[c] > 0) {
+                    combos[n++] = c;
+                }
+            }
+            return Arrays.copyOf(combos, n);
+        }
+
+        @Override
+        public Tally call() {
+            Tally tally = new Tally();
+            for (int r = from; r < to; r++) {
+                score(runouts[r], tally);
+            }
+            return tally;
+        }
+
+        private void score(long board, Tally tally) {
+            long boardRanks = HandEvaluator.rankKey(board);
+            long boardSuits = HandEvaluator.suitMasks(board);
+            int heroes = sortByScore(heroCombos, board, boardRanks, boardSuits, heroSorted, null);
+            int villains = sortByScore(villainCombos, board, boardRanks, boardSuits, villainSorted, villainScores);
+
+            double live = 0;
+            Arrays.fill(liveByCard, 0);
+            for (int v = 0; v < villains; v++) {
+                int combo = (int) villainSorted[v] & 0x7ff;
+                float weight = villainWeights[combo];
+                live += weight;
+                liveByCard[HandRange.firstCard(combo)] += weight;
+                liveByCard[HandRange.secondCard(combo)] += weight;
+            }
+
+            // below: villain combos scoring less than the current hero score; through: at most equal.
+            double below = 0;
+            double through = 0;
+            Arrays.fill(belowByCard, 0);
+            Arrays.fill(throughByCard, 0);
+            int lo = 0;
+            int hi = 0;
+            for (int h = 0; h < heroes; h++) {
+                int score = (int) (heroSorted[h] >>> 11);
+                int combo = (int) heroSorted[h] & 0x7ff;
+                while (lo < villains && (int) (villainSorted[lo] >>> 11) < score) {
+                    int v = (int) villainSorted[lo++] & 0x7ff;
+                    below += villainWeights[v];
+                    belowByCard[HandRange.firstCard(v)] += villainWeights[v];
+                    belowByCard[HandRange.secondCard(v)] += villainWeights[v];
+                }
+                while (hi < villains && (int) (villainSorted[hi] >>> 11) <= score) {
+                    int v = (int) villainSorted[hi++] & 0x7ff;
+                    through += villainWeights[v];
+                    throughByCard[HandRange.firstCard(v)] += villainWeights[v];
+                    throughByCard[HandRange.secondCard(v)] += villainWeights[v];
+                }
+                int a = HandRange.firstCard(combo);
+                int b = HandRange.secondCard(combo);
+                // The villain holding exactly these two cards was subtracted twice; add it back once.
+                float same = villainWeights[combo];
+                boolean sameLive = same > 0 && (HandRange.comboMask(combo) & board) == 0;
+                double beaten = below - belowByCard[a] - belowByCard[b];
+                double tied = through - throughByCard[a] - throughByCard[b] - beaten;
+                double faced = live - liveByCard[a] - liveByCard[b];
+                if (sameLive) {
+                    int sameScore = villainScores[combo];
+                    faced += same;
+                    if (sameScore < score) {
+                        beaten += same;
+                    } else if (sameScore == score) {
+                        tied += same;
+                    }
+                }
+                tally.wins[combo] += beaten;
+                tally.ties[combo] += tied;
+                tally.faced[combo] += faced;
+            }
+        }
+
+        // Scores the combos that do not touch the board and sorts them as score << 11 | combo.
+        private static int sortByScore(int[] combos, long board, long boardRanks, long boardSuits, long[] sorted,
+                                       int[] scores) {
+            int n = 0;
+            for (int combo : combos) {
+                if ((HandRange.comboMask(combo) & board) != 0) {
+                    continue;
+                }
+                int a = HandRange.firstCard(combo);
+                int b = HandRange.secondCard(combo);
+                long ranks = boardRanks + (1L << ((a >>> 2) * 3)) + (1L << ((b >>> 2) * 3));
+                long suits = boardSuits | (1L << ((a & 3) * 16 + (a >>> 2))) | (1L << ((b & 3) * 16 + (b >>> 2)));
+                int score = HandEvaluator.lookup(ranks, suits, 7);
+                if (scores != null) {
+                    scores[combo] = score;
+                }
+                sorted[n++] = ((long) score << 11) | combo;
+            }
+            Arrays.sort(sorted, 0, n);
+            return n;
+        }
+    }
+
+    // Villain weight each hero combo beat, tied and faced, summed over runouts.
+    private static final class Tally {
+        final double[] wins = new double[HandRange.COMBOS];
+        final double[] ties = new double[HandRange.COMBOS];
+        final double[] faced = new double[HandRange.COMBOS];
+
+        void merge(Tally other) {
+            for (int c = 0; c < HandRange.COMBOS; c++) {
+                wins[c] += other.wins[c];
+                ties[c] += other.ties[c];
+                faced[c] += other.faced[c];
+            }
+        }
+
+        RangeEquityResult toResult(float[] heroWeights, int runouts) {
+            double win = 0;
+            double tie = 0;
+            double matchups = 0;
+            float[] comboEquity = new float[HandRange.COMBOS];
+            Arrays.fill(comboEquity, Float.NaN);
+            for (int c = 0; c < HandRange.COMBOS; c++) {
+                if (heroWeights[c] > 0 && faced[c] > 0) {
+                    win += heroWeights[c] * wins[c];
+                    tie += heroWeights[c] * ties[c];
+                    matchups += heroWeights[c] * faced[c];
+                    comboEquity[c] = (float) ((wins[c] + ties[c] / 2) / faced[c]);
+                }
+            }
+            return new RangeEquityResult(runouts, matchups, win, tie, comboEquity);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// Outcome of a RangeEquity query, from the first range's point of view. Matchups count each
+// pair of non-conflicting combos on each runout, weighted by both combos' weights.
+public class RangeEquityResult {
+    private final int runouts;
+    private final double matchups;
+    private final double wins;
+    private final double ties;
+    private final float[] comboEquity;
+
+    public RangeEquityResult(int runouts, double matchups, double wins, double ties, float[] comboEquity) {
+        this.runouts = runouts;
+        this.matchups = matchups;
+        this.wins = wins;
+        this.ties = ties;
+        this.comboEquity = comboEquity;
+    }
+
+    public int getRunouts() {
+        return runouts;
+    }
+
+    public double getMatchups() {
+        return matchups;
+    }
+
+    // Share of the pot the first range wins on average; the second range gets the rest.
+    public double getEquity() {
+        return matchups == 0 ? 0 : (wins + ties / 2) / matchups;
+    }
+
+    public double getWinPercentage() {
+        return matchups == 0 ? 0 : 100.0 * wins / matchups;
+    }
+
+    public double getTiePercentage() {
+        return matchups == 0 ? 0 : 100.0 * ties / matchups;
+    }
+
+    // Equity of one combo of the first range against the whole second range, NaN if the
+    // combo is not in the range or never had an opponent.
+    public double getComboEquity(int combo) {
+        return comboEquity[combo];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Equity %.2f%% (win %.2f%%, tie %.2f%%) over %d runouts",
+                100 * getEquity(), getWinPercentage(), getTiePercentage(), runouts);
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Strategy for a player sitting at a table over the network. decide() sends a prompt and
+// waits for the client's answer, which the connection thread hands over through submit().
+// A client that does not answer within the timeout checks if it can and folds otherwise.
+public class RemoteStrategy implements PlayerStrategy {
+    // Wakes a waiting decide() on disconnect; told apart from real answers by identity.
+    private static final Action HUNG_UP = Action.raise(0);
+
+    private final Consumer<String> output;
+    private final long timeoutMillis;
+    private final BlockingQueue<Action> answers = new ArrayBlockingQueue<>(1);
+    private volatile boolean waiting;
+    private volatile boolean disconnected;
+
+    public RemoteStrategy(Consumer<String> output, long timeoutMillis) {
+        this.output = output;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Action decide(PokerGame game, Player player) {
+        Action fallback = player.getCurrentBet() != game.getCurrentBet() ? Action.fold() : Action.check();
+        answers.clear();
+        waiting = true;
+        try {
+            // Read after waiting is set, so a disconnect is either seen here or wakes the poll.
+            if (disconnected) {
+                return fallback;
+            }
+            output.accept("ACT " + game.getCurrentBet() + " " + player.getCurrentBet() + " " + player.getChips()
+                    + " " + (game.canRaise(player) ? 1 : 0) + " " + game.getBettingRound().getMinRaise());
+            Action action = answers.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (action == HUNG_UP) {
+                return fallback;
+            }
+            if (action != null) {
+                return action;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting = false;
+        }
+        output.accept("TIMEOUT");
+        return fallback;
+    }
+
+    // Answers outside the player's turn are ignored.
+    public void submit(Action action) {
+        if (waiting) {
+            answers.offer(action);
+        }
+    }
+
+    public void disconnect() {
+        disconnected = true;
+        submit(HUNG_UP);
+    }
+
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+}
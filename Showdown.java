@@ -0,0 +1,108 @@
+import java.util.*;
+
+// Scores every seat at a showdown once against a shared board. Seats are indexed as in
+// the table's player list, so pots can pick winners by seat mask without re-evaluating.
+public class Showdown {
+    private final int[] scores;
+    private final int[] ranking;
+
+    private Showdown(int[] scores, int[] ranking) {
+        this.scores = scores;
+        this.ranking = ranking;
+    }
+
+    // A hole mask of 0 marks a seat that is not in the showdown; it scores -1.
+    public static Showdown evaluate(long boardMask, long[] holeMasks) {
+        if (holeMasks.length > 64) {
+            throw new IllegalArgumentException("At most 64 seats, got " + holeMasks.length);
+        }
+        // The board's rank counts and suit masks are computed once and extended per seat.
+        long boardRankKey = HandEvaluator.rankKey(boardMask);
+        long boardSuitMasks = HandEvaluator.suitMasks(boardMask);
+        int boardSize = Long.bitCount(boardMask);
+        int[] scores = new int[holeMasks.length];
+        for (int seat = 0; seat < holeMasks.length; seat++) {
+            long hole = holeMasks[seat];
+            if (hole == 0) {
+                scores[seat] = -1;
+                continue;
+            }
+            int size = boardSize + Long.bitCount(hole);
+            if (size < 5 || size > 7) {
+                scores[seat] = HandEvaluator.evaluateMask(boardMask | hole);
+            } else {
+                scores[seat] = HandEvaluator.lookup(boardRankKey + HandEvaluator.rankKey(hole),
+                        boardSuitMasks | HandEvaluator.suitMasks(hole), size);
+            }
+        }
+        return new Showdown(scores, rank(scores));
+    }
+
+    // Seats with a score, best first. Insertion sort: tables are small and this avoids
+    // boxing seats for a comparator.
+    private static int[] rank(int[] scores) {
+        int seatsIn = 0;
+        for (int score : scores) {
+            if (score >= 0) {
+                seatsIn++;
+            }
+        }
+        int[] ranking = new int[seatsIn];
+        int ranked = 0;
+        for (int seat = 0; seat < scores.length; seat++) {
+            if (scores[seat] < 0) {
+                continue;
+            }
+            int i = ranked++;
+            while (i > 0 && scores[ranking[i - 1]] < scores[seat]) {
+                ranking[i] = ranking[i - 1];
+                i--;
+            }
+            ranking[i] = seat;
+        }
+        return ranking;
+    }
+
+    // Uses the scores the players' hand states already hold after the river.
+    public static Showdown evaluate(PokerGame game) {
+        List<Player> players = game.getPlayers();
+        int[] scores = new int[players.size()];
+        for (int seat = 0; seat < scores.length; seat++) {
+            Player player = players.get(seat);
+            scores[seat] = player.isActive() ? player.getHandState().getScore() : -1;
+        }
+        return new Showdown(scores, rank(scores));
+    }
+
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    // Null for a seat that is not in the showdown.
+    public String getHandType(int seat) {
+        return scores[seat] < 0 ? null : HandEvaluator.getHandType(scores[seat]);
+    }
+
+    // Seats in the showdown, best hand first.
+    public int[] getRanking() {
+        return ranking.clone();
+    }
+
+    // The seats among eligibleSeats holding the best hand; more than one bit means a split.
+    public long winners(long eligibleSeats) {
+        long winners = 0;
+        int best = -1;
+        for (int i = 0; i < ranking.length; i++) {
+            int seat = ranking[i];
+            if ((eligibleSeats & (1L << seat)) == 0) {
+                continue;
+            }
+            if (scores[seat] < best) {
+                break;
+            }
+            best = scores[seat];
+            winners |= 1L << seat;
+        }
+        return winners;
+    }
+}
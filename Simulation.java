@@ -0,0 +1,210 @@
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.random.RandomGeneratorFactory;
+
+// Deterministic headless simulation for regression testing. Every table's deck and bots
+// are seeded from a stream split off the master seed in table order, bots are limited by
+// iterations rather than time, and each table hashes its own actions, boards, pots and
+// stacks. The table digests are combined in table order, so the result depends only on
+// the seed and the engine, never on the thread count or scheduling.
+//
+// Usage: java Simulation [seed] [tables] [handsPerTable] [threads] [botIterations]
+public class Simulation {
+    private final long masterSeed;
+    private final int tables;
+    private final int handsPerTable;
+    private final int seatsPerTable;
+    private final int startingChips;
+    private final int botIterations;
+
+    public Simulation(long masterSeed, int tables, int handsPerTable, int seatsPerTable, int startingChips,
+                      int botIterations) {
+        this.masterSeed = masterSeed;
+        this.tables = tables;
+        this.handsPerTable = handsPerTable;
+        this.seatsPerTable = seatsPerTable;
+        this.startingChips = startingChips;
+        this.botIterations = botIterations;
+    }
+
+    public Result run(ForkJoinPool pool) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        List<Callable<TableResult>> runs = new ArrayList<>(tables);
+        for (int t = 0; t < tables; t++) {
+            SplittableRandom tableRandom = master.split();
+            long deckSeed = tableRandom.nextLong();
+            long botSeed = tableRandom.nextLong();
+            runs.add(() -> playTable(deckSeed, botSeed));
+        }
+        MessageDigest digest = sha256();
+        long hands = 0;
+        long chips = 0;
+        for (Future<TableResult> run : pool.invokeAll(runs)) {
+            TableResult table = join(run);
+            digest.update(table.digest);
+            hands += table.hands;
+            chips += table.chips;
+        }
+        return new Result(digest.digest(), hands, chips);
+    }
+
+    private TableResult playTable(long deckSeed, long botSeed) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 0; seat < seatsPerTable; seat++) {
+            players.add(new Player("Seat" + seat, startingChips));
+        }
+        BotStrategy bot = new BotStrategy(RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(botSeed),
+                Long.MAX_VALUE, botIterations);
+        Recorder recorder = new Recorder();
+        PokerGame game = new PokerGame(players, 5, 10, Deck.seeded(deckSeed), bot, recorder);
+        game.setMetrics(new GameMetrics(false));
+        int hands = 0;
+        while (hands < handsPerTable && playersWithChips(game) > 1) {
+            game.playHand();
+            hands++;
+        }
+        long chips = 0;
+        for (Player player : game.getPlayers()) {
+            chips += player.getChips();
+        }
+        return new TableResult(recorder.digest.digest(), hands, chips);
+    }
+
+    private static int playersWithChips(PokerGame game) {
+        int count = 0;
+        for (Player player : game.getPlayers()) {
+            if (player.getChips() > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+
+    private static TableResult join(Future<TableResult> run) {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated table failed", e.getCause());
+        }
+    }
+
+    // Hashes one table's hands. Events are buffered and digested once per hand.
+    private static final class Recorder implements GameListener {
+        final MessageDigest digest = sha256();
+        private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        @Override
+        public void onAction(Player player, Action action) {
+            ensure(9);
+            buffer.put((byte) action.getType().ordinal());
+            buffer.putInt(action.getAmount());
+            buffer.putInt(player.getCurrentBet());
+        }
+
+        @Override
+        public void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+            ensure(8 + winners.size() * 4);
+            buffer.putInt(amount);
+            buffer.putInt(winners.size());
+            for (Player winner : winners) {
+                buffer.putInt(winner.getName().hashCode());
+            }
+        }
+
+        @Override
+        public void onHandEnd(PokerGame game) {
+            ensure(8 + game.getPlayers().size() * 4);
+            buffer.putLong(game.getCommunityMask());
+            for (Player player : game.getPlayers()) {
+                buffer.putInt(player.getChips());
+            }
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2 + bytes);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+    }
+
+    private static final class TableResult {
+        final byte[] digest;
+        final int hands;
+        final long chips;
+
+        TableResult(byte[] digest, int hands, long chips) {
+            this.digest = digest;
+            this.hands = hands;
+            this.chips = chips;
+        }
+    }
+
+    public static class Result {
+        private final byte[] digest;
+        private final long hands;
+        private final long chips;
+
+        Result(byte[] digest, long hands, long chips) {
+            this.digest = digest;
+            this.hands = hands;
+            this.chips = chips;
+        }
+
+        public byte[] getDigest() {
+            return digest.clone();
+        }
+
+        public String getDigestHex() {
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+
+        public long getHands() {
+            return hands;
+        }
+
+        // Chips left on all tables; tables only move chips, so this is tables * seats * stack.
+        public long getChips() {
+            return chips;
+        }
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int tables = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int hands = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int iterations = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+        Simulation simulation = new Simulation(seed, tables, hands, 6, 1000, iterations);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Result result = simulation.run(pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        System.out.printf("%d hands on %d tables in %.1f s (%.0f hands/s), chips %d%n", result.getHands(), tables,
+                seconds, result.getHands() / seconds, result.getChips());
+        System.out.println("SHA-256 " + result.getDigestHex());
+    }
+}
@@ -0,0 +1,79 @@
+import java.io.ByteArrayOutputStream;
+
+// Delta between two consecutive table snapshots: the new snapshot XORed with the previous
+// one, with runs of zero bytes (unchanged bytes) replaced by their length. One action
+// changes a few bytes of a snapshot, so a delta is typically a dozen bytes.
+//
+// Layout: varint length of the new snapshot, then until it is covered:
+//   varint unchanged byte count, varint changed byte count, the changed bytes XORed
+public class SnapshotDelta {
+    // Shortest run of unchanged bytes worth ending a literal for.
+    private static final int MIN_RUN = 3;
+
+    public static byte[] encode(byte[] previous, byte[] current) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        writeVarint(out, current.length);
+        int i = 0;
+        while (i < current.length) {
+            int unchanged = i;
+            while (unchanged < current.length && xor(previous, current, unchanged) == 0) {
+                unchanged++;
+            }
+            int end = unchanged;
+            int zeros = 0;
+            while (end < current.length && zeros < MIN_RUN) {
+                zeros = xor(previous, current, end) == 0 ? zeros + 1 : 0;
+                end++;
+            }
+            if (zeros == MIN_RUN) {
+                end -= MIN_RUN;
+            }
+            writeVarint(out, unchanged - i);
+            writeVarint(out, end - unchanged);
+            for (int j = unchanged; j < end; j++) {
+                out.write(xor(previous, current, j));
+            }
+            i = end;
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] apply(byte[] previous, byte[] delta) {
+        int[] position = {0};
+        byte[] current = new byte[readVarint(delta, position)];
+        System.arraycopy(previous, 0, current, 0, Math.min(previous.length, current.length));
+        int i = 0;
+        while (i < current.length) {
+            i += readVarint(delta, position);
+            int changed = readVarint(delta, position);
+            for (int j = 0; j < changed; j++, i++) {
+                current[i] ^= delta[position[0]++];
+            }
+        }
+        return current;
+    }
+
+    private static int xor(byte[] previous, byte[] current, int index) {
+        int before = index < previous.length ? previous[index] : 0;
+        return (before ^ current[index]) & 0xff;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in[position[0]++];
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.*;
+import java.util.*;
+
+// Streams a table's snapshots so it can be recovered after a crash or moved to another node:
+// a full snapshot when each hand starts, then a SnapshotDelta after every action and at the
+// end of the hand. Frames are a kind byte, an int length and the payload, flushed one by one.
+public class SnapshotRecorder implements GameListener {
+    static final int FULL = 0;
+    static final int DELTA = 1;
+
+    private final DataOutputStream out;
+    private PokerGame game;
+    private byte[] previous;
+
+    public SnapshotRecorder(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void onHandStart(PokerGame game) {
+        this.game = game;
+        previous = game.snapshot();
+        write(FULL, previous);
+    }
+
+    @Override
+    public void onAction(Player player, Action action) {
+        writeDelta();
+    }
+
+    @Override
+    public void onHandEnd(PokerGame game) {
+        writeDelta();
+    }
+
+    private void writeDelta() {
+        if (game == null) {
+            return;
+        }
+        byte[] current = game.snapshot();
+        write(DELTA, SnapshotDelta.encode(previous, current));
+        previous = current;
+    }
+
+    private void write(int kind, byte[] payload) {
+        try {
+            out.writeByte(kind);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record table snapshot", e);
+        }
+    }
+
+    // The latest complete snapshot in a recorded stream, or null if it holds none. A frame
+    // cut short by a crash is ignored.
+    public static byte[] latest(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        byte[] snapshot = null;
+        while (true) {
+            int kind = data.read();
+            if (kind < 0) {
+                return snapshot;
+            }
+            byte[] payload;
+            try {
+                payload = new byte[data.readInt()];
+                data.readFully(payload);
+            } catch (EOFException e) {
+                return snapshot;
+            }
+            if (kind == FULL) {
+                snapshot = payload;
+            } else if (snapshot != null) {
+                snapshot = SnapshotDelta.apply(snapshot, payload);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Hosts many PokerGame tables at once. Each table plays its hands on its own thread
+// (a virtual thread when the JDK supports them), so strategies may block while waiting
+// for a human or remote decision. Seating changes happen only between rounds.
+//
+// Tables report to listeners from their own threads: either give a factory so every table
+// gets its own listener, or a single listener that is safe to call concurrently.
+public class TableManager {
+    private final int seatsPerTable;
+    private final PlayerStrategy defaultStrategy;
+    private final Supplier<? extends GameListener> listeners;
+    private final ExecutorService executor;
+    private final List<PokerGame> tables;
+    private int smallBlind;
+    private int bigBlind;
+
+    public TableManager(int seatsPerTable, int smallBlind, int bigBlind, PlayerStrategy defaultStrategy,
+                        GameListener listener) {
+        this(seatsPerTable, smallBlind, bigBlind, defaultStrategy, () -> listener, createTableExecutor());
+    }
+
+    // listeners is called once for every table created, e.g. to give each its own ConsoleListener.
+    public TableManager(int seatsPerTable, int smallBlind, int bigBlind, PlayerStrategy defaultStrategy,
+                        Supplier<? extends GameListener> listeners) {
+        this(seatsPerTable, smallBlind, bigBlind, defaultStrategy, listeners, createTableExecutor());
+    }
+
+    public TableManager(int seatsPerTable, int smallBlind, int bigBlind, PlayerStrategy defaultStrategy,
+                        GameListener listener, ExecutorService executor) {
+        this(seatsPerTable, smallBlind, bigBlind, defaultStrategy, () -> listener, executor);
+    }
+
+    public TableManager(int seatsPerTable, int smallBlind, int bigBlind, PlayerStrategy defaultStrategy,
+                        Supplier<? extends GameListener> listeners, ExecutorService executor) {
+        if (seatsPerTable < 2) {
+            throw new IllegalArgumentException("A table needs at least two seats");
+        }
+        this.seatsPerTable = seatsPerTable;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.defaultStrategy = defaultStrategy;
+        this.listeners = listeners;
+        this.executor = executor;
+        this.tables = new ArrayList<>();
+    }
+
+    // Thread per task executor: virtual threads on JDK 21+, daemon platform threads otherwise.
+    static ExecutorService createTableExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "poker-table");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Spreads the players over as few tables as possible, as evenly as possible.
+    public void seatPlayers(List<Player> players) {
+        int tableCount = Math.max(1, (players.size() + seatsPerTable - 1) / seatsPerTable);
+        List<List<Player>> seating = new ArrayList<>();
+        for (int t = 0; t < tableCount; t++) {
+            seating.add(new ArrayList<>());
+        }
+        for (int i = 0; i < players.size(); i++) {
+            seating.get(i % tableCount).add(players.get(i));
+        }
+        for (List<Player> seats : seating) {
+            tables.add(new PokerGame(seats, smallBlind, bigBlind, new Deck(), defaultStrategy, listeners.get()));
+        }
+    }
+
+    // Every table plays up to handsPerTable hands concurrently; returns once all have stopped.
+    public void playRound(int handsPerTable) {
+        List<Callable<Void>> runs = new ArrayList<>();
+        for (PokerGame table : tables) {
+            runs.add(() -> {
+                for (int h = 0; h < handsPerTable && playersWithChips(table) > 1; h++) {
+                    table.playHand();
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> run : executor.invokeAll(runs)) {
+                run.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while tables were playing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A table failed", e.getCause());
+        }
+    }
+
+    // Plays rounds of handsPerLevel hands, doubling the blinds after each round and
+    // eliminating, breaking and balancing between rounds. Returns the winner, if any.
+    public Player runTournament(List<Player> entrants, int handsPerLevel) {
+        seatPlayers(entrants);
+        while (remainingPlayers() > 1) {
+            playRound(handsPerLevel);
+            eliminateBustedPlayers();
+            balanceTables();
+            setBlindLevel(smallBlind * 2, bigBlind * 2);
+        }
+        for (PokerGame table : tables) {
+            if (!table.getPlayers().isEmpty()) {
+                return table.getPlayers().get(0);
+            }
+        }
+        return null;
+    }
+
+    public void setBlindLevel(int smallBlind, int bigBlind) {
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        for (PokerGame table : tables) {
+            table.setBlindLevel(smallBlind, bigBlind);
+        }
+    }
+
+    public List<Player> eliminateBustedPlayers() {
+        List<Player> busted = new ArrayList<>();
+        for (PokerGame table : tables) {
+            for (Player player : new ArrayList<>(table.getPlayers())) {
+                if (player.getChips() == 0) {
+                    table.removePlayer(player);
+                    busted.add(player);
+                }
+            }
+        }
+        return busted;
+    }
+
+    // Breaks tables until the field needs no fewer, then moves players from the fullest
+    // table to the emptiest until no two tables differ by more than one player.
+    public void balanceTables() {
+        tables.removeIf(table -> table.getPlayers().isEmpty());
+        int needed = Math.max(1, (remainingPlayers() + seatsPerTable - 1) / seatsPerTable);
+        while (tables.size() > needed) {
+            PokerGame broken = smallestTable();
+            tables.remove(broken);
+            for (Player player : new ArrayList<>(broken.getPlayers())) {
+                broken.removePlayer(player);
+                smallestTable().seatPlayer(player);
+            }
+        }
+        while (true) {
+            PokerGame largest = largestTable();
+            PokerGame smallest = smallestTable();
+            if (largest.getPlayers().size() - smallest.getPlayers().size() <= 1) {
+                return;
+            }
+            Player moved = largest.getPlayers().get(largest.getPlayers().size() - 1);
+            largest.removePlayer(moved);
+            smallest.seatPlayer(moved);
+        }
+    }
+
+    private PokerGame smallestTable() {
+        return Collections.min(tables, Comparator.comparingInt(table -> table.getPlayers().size()));
+    }
+
+    private PokerGame largestTable() {
+        return Collections.max(tables, Comparator.comparingInt(table -> table.getPlayers().size()));
+    }
+
+    private static int playersWithChips(PokerGame table) {
+        int count = 0;
+        for (Player player : table.getPlayers()) {
+            if (player.getChips() > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int remainingPlayers() {
+        int count = 0;
+        for (PokerGame table : tables) {
+            count += table.getPlayers().size();
+        }
+        return count;
+    }
+
+    public List<PokerGame> getTables() {
+        return Collections.unmodifiableList(tables);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,423 @@
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Serves PokerGame tables over TCP. One selector thread owns every connection, so an idle
+// client costs a key and a small read buffer, not a thread. Tables play on the
+// TableManager table executor; a seated client's RemoteStrategy blocks its table while
+// waiting for an answer, never the selector. Clients are seated in arrival order as soon
+// as a table's worth of them is waiting.
+//
+// Line protocol, one command per line. Cards are sent as ids (rank index * 4 + suit index).
+//   client: JOIN name chips | FOLD | CHECK | CALL | RAISE amount | QUIT
+//   server: WAITING | SEATED table seat | HAND dealer smallBlind bigBlind | HOLE id id
+//           BOARD id... | TURN name | ACT currentBet yourBet chips canRaise minRaise |
+//           TIMEOUT | ACTION name type amount totalBet | POT index amount name,name...
+//           STACK name chips | END | BUST | STANDING chips | ERR message
+public class TableServer implements Closeable {
+    private static final int MAX_LINE = 256;
+    private static final int MAX_QUEUED_BYTES = 64 * 1024;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final int seatsPerTable;
+    private final int smallBlind;
+    private final int bigBlind;
+    private final long actionTimeoutMillis;
+    private final ExecutorService tables;
+    private final Queue<Session> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final List<Session> lobby = new ArrayList<>();
+    private final AtomicInteger tableCount = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public TableServer(InetSocketAddress address, int seatsPerTable, int smallBlind, int bigBlind,
+                       long actionTimeoutMillis) throws IOException {
+        if (seatsPerTable < 2) {
+            throw new IllegalArgumentException("A table needs at least two seats");
+        }
+        this.seatsPerTable = seatsPerTable;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.actionTimeoutMillis = actionTimeoutMillis;
+        this.tables = TableManager.createTableExecutor();
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public int getTableCount() {
+        return tableCount.get();
+    }
+
+    // Runs the selector loop on the calling thread until close().
+    public void run() throws IOException {
+        while (running) {
+            selector.select();
+            Session flushing;
+            while ((flushing = pendingWrites.poll()) != null) {
+                flushing.flushQueued.set(false);
+                flush(flushing);
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                Session session = (Session) key.attachment();
+                try {
+                    if (key.isReadable()) {
+                        read(session);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(session);
+                    }
+                } catch (IOException e) {
+                    disconnect(session);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        tables.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Session) {
+                disconnect((Session) key.attachment());
+            }
+        }
+        server.close();
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            connections.incrementAndGet();
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        ByteBuffer buffer = session.readBuffer;
+        if (session.channel.read(buffer) < 0) {
+            disconnect(session);
+            return;
+        }
+        buffer.flip();
+        int lineStart = buffer.position();
+        for (int i = lineStart; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                String line = new String(buffer.array(), lineStart, i - lineStart, StandardCharsets.US_ASCII);
+                handle(session, line.trim());
+                lineStart = i + 1;
+            }
+        }
+        buffer.position(lineStart);
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            session.send("ERR line too long");
+            disconnect(session);
+        }
+    }
+
+    private void handle(Session session, String line) {
+        if (line.isEmpty() || session.closed) {
+            return;
+        }
+        String[] parts = line.split("\\s+");
+        RemoteStrategy strategy = session.strategy;
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "JOIN":
+                    join(session, parts);
+                    break;
+                case "FOLD":
+                    answer(session, strategy, Action.fold());
+                    break;
+                case "CHECK":
+                    answer(session, strategy, Action.check());
+                    break;
+                case "CALL":
+                    answer(session, strategy, Action.call());
+                    break;
+                case "RAISE":
+                    answer(session, strategy, Action.raise(Integer.parseInt(parts[1])));
+                    break;
+                case "QUIT":
+                    disconnect(session);
+                    break;
+                default:
+                    session.send("ERR unknown command " + parts[0]);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            session.send("ERR malformed command " + line);
+        }
+    }
+
+    private void join(Session session, String[] parts) {
+        if (session.player != null) {
+            session.send("ERR already seated");
+            return;
+        }
+        int chips = Integer.parseInt(parts[2]);
+        if (chips <= 0) {
+            session.send("ERR chips must be positive");
+            return;
+        }
+        RemoteStrategy strategy = new RemoteStrategy(session::send, actionTimeoutMillis);
+        Player player = new Player(parts[1], chips);
+        player.setStrategy(strategy);
+        session.strategy = strategy;
+        session.player = player;
+        lobby.add(session);
+        session.send("WAITING");
+        if (lobby.size() >= seatsPerTable) {
+            List<Session> seated = new ArrayList<>(lobby);
+            lobby.clear();
+            startTable(seated);
+        }
+    }
+
+    private static void answer(Session session, RemoteStrategy strategy, Action action) {
+        if (strategy == null) {
+            session.send("ERR not seated");
+            return;
+        }
+        strategy.submit(action);
+    }
+
+    private void startTable(List<Session> seated) {
+        int table = tableCount.incrementAndGet();
+        for (int seat = 0; seat < seated.size(); seat++) {
+            seated.get(seat).send("SEATED " + table + " " + seat);
+        }
+        tables.execute(() -> play(seated));
+    }
+
+    // Plays hands until fewer than two connected players with chips remain. Busted and
+    // disconnected players leave between hands; the rest stand up and may JOIN again.
+    private void play(List<Session> seated) {
+        Map<Player, Session> sessions = new IdentityHashMap<>();
+        List<Player> players = new ArrayList<>();
+        for (Session session : seated) {
+            sessions.put(session.player, session);
+            players.add(session.player);
+        }
+        PokerGame game = new PokerGame(players, smallBlind, bigBlind, new Deck(), (g, p) -> Action.fold(),
+                new Broadcast(sessions));
+        try {
+            while (running && game.getPlayers().size() > 1) {
+                game.playHand();
+                for (Player player : new ArrayList<>(game.getPlayers())) {
+                    Session session = sessions.get(player);
+                    if (player.getChips() == 0 || session.closed || session.overflowed) {
+                        game.removePlayer(player);
+                        sessions.remove(player);
+                        session.send("BUST");
+                        session.standUp();
+                    }
+                }
+            }
+        } finally {
+            for (Session session : sessions.values()) {
+                session.send("STANDING " + session.player.getChips());
+                session.standUp();
+            }
+            tableCount.decrementAndGet();
+        }
+    }
+
+    private void flush(Session session) {
+        if (session.closed) {
+            return;
+        }
+        if (session.overflowed) {
+            disconnect(session);
+            return;
+        }
+        try {
+            ByteBuffer buffer;
+            while ((buffer = session.writes.peek()) != null) {
+                session.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    session.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                session.writes.poll();
+                session.queuedBytes.addAndGet(-buffer.capacity());
+            }
+            session.key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException | CancelledKeyException e) {
+            disconnect(session);
+        }
+    }
+
+    private void disconnect(Session session) {
+        if (session.closed) {
+            return;
+        }
+        session.closed = true;
+        lobby.remove(session);
+        RemoteStrategy strategy = session.strategy;
+        if (strategy != null) {
+            strategy.disconnect();
+        }
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Already gone.
+        }
+        connections.decrementAndGet();
+    }
+
+    private final class Session {
+        final SocketChannel channel;
+        final ByteBuffer readBuffer = ByteBuffer.allocate(MAX_LINE);
+        final Queue<ByteBuffer> writes = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queuedBytes = new AtomicInteger();
+        final AtomicBoolean flushQueued = new AtomicBoolean();
+        SelectionKey key;
+        volatile Player player;
+        volatile RemoteStrategy strategy;
+        volatile boolean closed;
+        volatile boolean overflowed;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        // Callable from any thread; the selector thread does the actual write. A client
+        // that stops reading is dropped rather than buffered for without bound.
+        void send(String line) {
+            if (closed || overflowed) {
+                return;
+            }
+            byte[] bytes = (line + "\n").getBytes(StandardCharsets.US_ASCII);
+            if (queuedBytes.addAndGet(bytes.length) > MAX_QUEUED_BYTES) {
+                overflowed = true;
+                RemoteStrategy seated = strategy;
+                if (seated != null) {
+                    seated.disconnect();
+                }
+            } else {
+                writes.add(ByteBuffer.wrap(bytes));
+            }
+            if (!flushQueued.getAndSet(true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void standUp() {
+            strategy = null;
+            player = null;
+        }
+    }
+
+    // Reports a table's events to every client seated at it.
+    private static final class Broadcast implements GameListener {
+        private final Map<Player, Session> sessions;
+
+        Broadcast(Map<Player, Session> sessions) {
+            this.sessions = sessions;
+        }
+
+        private void send(String line) {
+            for (Session session : sessions.values()) {
+                session.send(line);
+            }
+        }
+
+        @Override
+        public void onHandStart(PokerGame game) {
+            send("HAND " + game.getDealerPosition() + " " + game.getSmallBlind() + " " + game.getBigBlind());
+            for (Map.Entry<Player, Session> seat : sessions.entrySet()) {
+                List<Card> hand = seat.getKey().getHand();
+                if (hand.size() == 2) {
+                    seat.getValue().send("HOLE " + hand.get(0).getId() + " " + hand.get(1).getId());
+                }
+            }
+        }
+
+        @Override
+        public void onCommunityCards(List<Card> communityCards) {
+            StringBuilder line = new StringBuilder("BOARD");
+            for (Card card : communityCards) {
+                line.append(' ').append(card.getId());
+            }
+            send(line.toString());
+        }
+
+        @Override
+        public void onTurn(PokerGame game, Player player) {
+            send("TURN " + player.getName());
+        }
+
+        @Override
+        public void onAction(Player player, Action action) {
+            send("ACTION " + player.getName() + " " + action.getType() + " " + action.getAmount() + " "
+                    + player.getCurrentBet());
+        }
+
+        @Override
+        public void onPotAwarded(int potIndex, int amount, List<Player> winners) {
+            StringJoiner names = new StringJoiner(",");
+            for (Player winner : winners) {
+                names.add(winner.getName());
+            }
+            send("POT " + potIndex + " " + amount + " " + names);
+        }
+
+        @Override
+        public void onHandEnd(PokerGame game) {
+            for (Player player : game.getPlayers()) {
+                send("STACK " + player.getName() + " " + player.getChips());
+            }
+            send("END");
+        }
+    }
+
+    // java TableServer [port] [seatsPerTable] [actionTimeoutMillis] [metricsFile]
+    public static void main(String[] args) throws IOException, javax.management.JMException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        long timeout = args.length > 2 ? Long.parseLong(args[2]) : 15000;
+        GameMetrics.global().registerMBean("global");
+        if (args.length > 3) {
+            GameMetrics.global().dumpEvery(java.nio.file.Paths.get(args[3]), 5000);
+        }
+        try (TableServer server = new TableServer(new InetSocketAddress(port), seats, 10, 20, timeout)) {
+            System.out.println("Listening on port " + server.getPort());
+            server.run();
+        }
+    }
+}
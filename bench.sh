@@ -0,0 +1,3 @@
+javac *.java
+java Benchmarks "$@"
+rm *.class